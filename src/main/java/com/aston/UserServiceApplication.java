@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.circuitbreaker.EnableCircuitBreaker;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.retry.annotation.EnableRetry;
 
 import javax.annotation.PostConstruct;
@@ -25,7 +26,14 @@ public class UserServiceApplication {
         log.info("Сервис контроля пользователей запущен {}", LocalDateTime.now());
     }
 
+    /**
+     * При startup.exit-after-start=true сервис останавливается сразу после старта:
+     * так выполняется тренировочный запуск для архива CDS
+     */
     public static void main(String[] args) {
-        SpringApplication.run(UserServiceApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(UserServiceApplication.class, args);
+        if (context.getEnvironment().getProperty("startup.exit-after-start", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
@@ -0,0 +1,87 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Локальный ближний кэш пользователей с ограничением размера и TTL
+ *
+ * Хранит копии DTO, вытесняет давно не использованные записи.
+ * TTL ограничивает время жизни записи, если событие инвалидации потеряно
+ */
+public class NearUserCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<Long, Entry> entries;
+
+    public NearUserCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > NearUserCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Optional<UserResource> get(Long id) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry != null && entry.expiresAt <= clock.millis()) {
+                entries.remove(id);
+                entry = null;
+            }
+        }
+        return entry == null ? Optional.empty() : Optional.of(copyOf(entry.resource));
+    }
+
+    public void put(UserResource resource) {
+        Entry entry = new Entry(copyOf(resource), clock.millis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(resource.getId(), entry);
+        }
+    }
+
+    public void evict(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static UserResource copyOf(UserResource resource) {
+        return UserResource.builder()
+                .id(resource.getId())
+                .name(resource.getName())
+                .email(resource.getEmail())
+                .age(resource.getAge())
+                .createdAt(resource.getCreatedAt())
+                .build();
+    }
+
+    private static final class Entry {
+
+        private final UserResource resource;
+        private final long expiresAt;
+
+        private Entry(UserResource resource, long expiresAt) {
+            this.resource = resource;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
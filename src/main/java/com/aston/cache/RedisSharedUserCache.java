@@ -0,0 +1,79 @@
+package com.aston.cache;
+
+import com.aston.dto.CompactUser;
+import com.aston.dto.UserResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Общий кэш пользователей в Redis
+ *
+ * Значение - компактный JSON пользователя под ключом prefix + id с TTL.
+ * Ошибки Redis считаются промахом, чтобы недоступность кэша не влияла на запросы
+ */
+@Slf4j
+public class RedisSharedUserCache implements SharedUserCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final String keyPrefix;
+    private final Duration ttl;
+
+    public RedisSharedUserCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                String keyPrefix, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.reader = objectMapper.readerFor(CompactUser.class);
+        this.writer = objectMapper.writerFor(CompactUser.class);
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<UserResource> get(Long id) {
+        try {
+            String value = redisTemplate.opsForValue().get(keyPrefix + id);
+            if (value == null) {
+                return Optional.empty();
+            }
+            CompactUser user = reader.readValue(value);
+            return Optional.of(UserResource.builder()
+                    .id(user.getId())
+                    .name(user.getName())
+                    .email(user.getEmail())
+                    .age(user.getAge())
+                    .createdAt(user.getCreatedAt())
+                    .build());
+        } catch (Exception e) {
+            log.debug("Общий кэш пользователей недоступен при чтении: {}, {}", kv("userId", id), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(UserResource resource) {
+        try {
+            redisTemplate.opsForValue().set(keyPrefix + resource.getId(),
+                    writer.writeValueAsString(CompactUser.from(resource)), ttl);
+        } catch (Exception e) {
+            log.debug("Общий кэш пользователей недоступен при записи: {}, {}", kv("userId", resource.getId()), e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(Long id) {
+        try {
+            redisTemplate.delete(keyPrefix + id);
+        } catch (Exception e) {
+            log.warn("Не удалось удалить пользователя из общего кэша: {}, {}", kv("userId", id), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+
+import java.util.Optional;
+
+/**
+ * Общий для всех экземпляров сервиса уровень кэша пользователей
+ *
+ * Реализации не должны пробрасывать ошибки хранилища: недоступный кэш
+ * означает промах, а не отказ запроса
+ */
+public interface SharedUserCache {
+
+    Optional<UserResource> get(Long id);
+
+    void put(UserResource resource);
+
+    void evict(Long id);
+}
@@ -0,0 +1,43 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Двухуровневый кэш пользователей: локальный ближний кэш перед общим
+ *
+ * Промах ближнего кэша читает общий и заполняет ближний. Запись и удаление
+ * затрагивают оба уровня. Кэши всех экземпляров очищаются событиями
+ * user-events через UserCacheInvalidationListener
+ */
+@RequiredArgsConstructor
+public class TwoLevelUserCache implements UserCache {
+
+    private final NearUserCache nearCache;
+    private final SharedUserCache sharedCache;
+
+    @Override
+    public Optional<UserResource> get(Long id) {
+        Optional<UserResource> near = nearCache.get(id);
+        if (near.isPresent()) {
+            return near;
+        }
+        Optional<UserResource> shared = sharedCache.get(id);
+        shared.ifPresent(nearCache::put);
+        return shared;
+    }
+
+    @Override
+    public void put(UserResource resource) {
+        nearCache.put(resource);
+        sharedCache.put(resource);
+    }
+
+    @Override
+    public void evict(Long id) {
+        nearCache.evict(id);
+        sharedCache.evict(id);
+    }
+}
@@ -0,0 +1,35 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+
+import java.util.Optional;
+
+/**
+ * Кэш пользователей по ID для чтения getUserById
+ */
+public interface UserCache {
+
+    /**
+     * Кэш, который ничего не хранит; используется, когда кэширование выключено
+     */
+    UserCache NONE = new UserCache() {
+        @Override
+        public Optional<UserResource> get(Long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void put(UserResource resource) {
+        }
+
+        @Override
+        public void evict(Long id) {
+        }
+    };
+
+    Optional<UserResource> get(Long id);
+
+    void put(UserResource resource);
+
+    void evict(Long id);
+}
@@ -0,0 +1,43 @@
+package com.aston.cache;
+
+import com.aston.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+
+/**
+ * Инвалидация кэша пользователей по событиям user-events
+ *
+ * Каждый экземпляр читает топик своей группой потребителей, поэтому изменение,
+ * сделанное любым экземпляром, массовой операцией или через CDC, очищает
+ * кэши всех экземпляров
+ */
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final UserCache userCache;
+
+    @KafkaListener(
+            id = "userCacheInvalidation",
+            topics = "${kafka.topics.user-events}",
+            containerFactory = "userCacheInvalidationListenerContainerFactory")
+    public void onEvent(ConsumerRecord<String, UserEvent> record) {
+        UserEvent event = record.value();
+        if (event == null) {
+            evict(record.key());
+        } else if (event.getEventType() != UserEvent.EventType.USER_CREATED && event.getUserId() != null) {
+            userCache.evict(event.getUserId());
+        }
+    }
+
+    private void evict(String key) {
+        if (key == null) {
+            return;
+        }
+        try {
+            userCache.evict(Long.parseLong(key));
+        } catch (NumberFormatException e) {
+            // сообщения без числового ключа отправлялись до перехода на ключи по ID
+        }
+    }
+}
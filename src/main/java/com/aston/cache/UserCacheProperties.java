@@ -0,0 +1,53 @@
+package com.aston.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки двухуровневого кэша пользователей для нескольких экземпляров
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-cache")
+public class UserCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Уникальный и постоянный идентификатор экземпляра, например имя пода StatefulSet;
+     * из него строится группа потребителей инвалидации. Если не задан, группа случайная
+     */
+    private String instanceId;
+
+    private Near near = new Near();
+
+    private Shared shared = new Shared();
+
+    @Data
+    public static class Near {
+
+        /**
+         * Максимальное число пользователей в памяти экземпляра
+         */
+        private int maxEntries = 10_000;
+
+        /**
+         * Время жизни записи: ограничивает устаревание, если событие инвалидации потеряно
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Shared {
+
+        /**
+         * Время жизни записи в Redis
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        private String keyPrefix = "user-service:user:";
+    }
+}
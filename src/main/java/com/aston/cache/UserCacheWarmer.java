@@ -0,0 +1,147 @@
+package com.aston.cache;
+
+import com.aston.dto.UserFilter;
+import com.aston.dto.UserPage;
+import com.aston.dto.UserResource;
+import com.aston.service.UserService;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Прогрев кэша пользователей после запуска приложения
+ *
+ * В фоне читает самых новых пользователей страницами через UserService и кладет их
+ * в UserCache, из которого читает getUserById. Чтение идет через те же лимиты, что и
+ * запросы списка, поэтому прогрев не создает лишней нагрузки на БД. Пока загружена
+ * меньшая доля цели, чем ready-threshold, индикатор userCacheWarmup держит readiness
+ * в OUT_OF_SERVICE. Если кэш чтения выключен (user-cache.enabled=false), прогревать
+ * нечего и готовность не задерживается. Ошибка или таймаут прогрева не блокируют готовность
+ */
+@Slf4j
+@Component
+public class UserCacheWarmer implements DisposableBean {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED, TIMED_OUT, DISABLED
+    }
+
+    private final UserService userService;
+    private final UserCache userCache;
+    private final UserCacheWarmupProperties properties;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-cache-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final int target;
+    private volatile Status status;
+
+    public UserCacheWarmer(UserService userService,
+                           UserCache userCache,
+                           UserCacheProperties cacheProperties,
+                           UserCacheWarmupProperties properties) {
+        this.userService = userService;
+        this.userCache = userCache;
+        this.properties = properties;
+        this.target = userCache == UserCache.NONE
+                ? 0
+                : Math.min(properties.getMaxUsers(), cacheProperties.getNear().getMaxEntries());
+        this.status = properties.isEnabled() && target > 0 ? Status.PENDING : Status.DISABLED;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (status == Status.PENDING) {
+            executor.execute(this::warmUp);
+        }
+    }
+
+    /**
+     * Загрузить пользователей в кэш, начиная с самых новых
+     */
+    void warmUp() {
+        status = Status.RUNNING;
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        UserFilter filter = UserFilter.builder()
+                .sort("createdAt")
+                .direction("desc")
+                .limit(Math.min(properties.getBatchSize(), target))
+                .build();
+        try {
+            while (loaded.get() < target) {
+                if (System.nanoTime() > deadline) {
+                    status = Status.TIMED_OUT;
+                    log.warn("Прогрев кэша пользователей прерван по таймауту: {}, {}",
+                            kv("loaded", loaded.get()), kv("target", target));
+                    return;
+                }
+                UserPage page;
+                try {
+                    page = userService.findUsers(filter);
+                } catch (RequestNotPermitted | BulkheadFullException e) {
+                    // лимит списка занят живыми запросами - уступаем им
+                    Thread.sleep(properties.getRetryBackoff().toMillis());
+                    continue;
+                }
+                for (UserResource user : page.getItems()) {
+                    if (loaded.get() >= target) {
+                        break;
+                    }
+                    userCache.put(user);
+                    loaded.incrementAndGet();
+                }
+                if (page.getNextCursor() == null) {
+                    break;
+                }
+                filter.setCursor(page.getNextCursor());
+            }
+            status = Status.COMPLETED;
+            log.info("Кэш пользователей прогрет: {}", kv("loaded", loaded.get()));
+        } catch (InterruptedException e) {
+            status = Status.FAILED;
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            status = Status.FAILED;
+            log.warn("Ошибка прогрева кэша пользователей: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return true, если прогрев достиг порога готовности или завершился
+     */
+    public boolean isReady() {
+        Status current = status;
+        return current != Status.PENDING && current != Status.RUNNING
+                || loaded.get() >= Math.ceil(target * properties.getReadyThreshold());
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getLoaded() {
+        return loaded.get();
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
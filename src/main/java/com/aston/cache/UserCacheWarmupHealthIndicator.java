@@ -0,0 +1,28 @@
+package com.aston.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Состояние прогрева кэша пользователей для группы readiness
+ *
+ * OUT_OF_SERVICE, пока прогрев не достиг порога готовности
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final UserCacheWarmer userCacheWarmer;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = userCacheWarmer.isReady() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("status", userCacheWarmer.getStatus())
+                .withDetail("loaded", userCacheWarmer.getLoaded())
+                .withDetail("target", userCacheWarmer.getTarget())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.aston.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки прогрева кэша пользователей после запуска
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-cache.warmup")
+public class UserCacheWarmupProperties {
+
+    /**
+     * Прогревать кэш при запуске
+     */
+    private boolean enabled = true;
+
+    /**
+     * Сколько самых новых пользователей загрузить; не больше емкости ближнего кэша
+     */
+    private int maxUsers = 5000;
+
+    /**
+     * Размер страницы чтения из БД
+     */
+    private int batchSize = 500;
+
+    /**
+     * Доля от цели прогрева, после которой сервис готов принимать трафик
+     */
+    private double readyThreshold = 0.8;
+
+    /**
+     * Пауза перед повтором, если лимит запросов списка исчерпан
+     */
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    /**
+     * Максимальная длительность прогрева; по истечении сервис готов независимо от результата
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,97 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+import com.aston.exception.UserException;
+import com.aston.service.UserService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Асинхронное обновление локальных снимков пользователей после сбоя БД
+ *
+ * Когда circuit breaker userRepository переходит в HALF_OPEN, самые свежие
+ * записи снимка перечитываются через UserService. Эти вызовы одновременно служат
+ * пробными запросами для закрытия circuit breaker
+ */
+@Slf4j
+@Component
+public class UserSnapshotRefresher implements DisposableBean {
+
+    private static final String CIRCUIT_BREAKER_NAME = "userRepository";
+
+    private final UserService userService;
+    private final UserSnapshotStore userSnapshotStore;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public UserSnapshotRefresher(UserService userService,
+                                 UserSnapshotStore userSnapshotStore,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 @Value("${user-snapshot.refresh-batch-size:50}") int batchSize) {
+        this.userService = userService;
+        this.userSnapshotStore = userSnapshotStore;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_NAME)
+                .getEventPublisher()
+                .onStateTransition(this::onStateTransition);
+    }
+
+    private void onStateTransition(CircuitBreakerOnStateTransitionEvent event) {
+        if (event.getStateTransition().getToState() == CircuitBreaker.State.HALF_OPEN
+                && refreshing.compareAndSet(false, true)) {
+            executor.execute(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        try {
+            List<Long> ids = userSnapshotStore.recentIds(batchSize);
+            int refreshed = 0;
+            for (Long id : ids) {
+                try {
+                    UserResource resource = userService.getUserById(id);
+                    if (resource.getStaleAgeSeconds() != null) {
+                        // circuit breaker снова открыт, дальнейшие попытки бессмысленны
+                        break;
+                    }
+                    refreshed++;
+                } catch (UserException e) {
+                    userSnapshotStore.evict(id);
+                }
+            }
+            log.info("Обновлено снимков пользователей после восстановления БД: {} из {}", refreshed, ids.size());
+        } catch (Exception e) {
+            log.warn("Ошибка при обновлении снимков пользователей: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ограниченное локальное хранилище последних известных значений пользователей
+ *
+ * Используется fallback-методом getUserById, чтобы отдавать устаревшие,
+ * но доступные данные, пока circuit breaker открыт. Вытеснение по LRU
+ */
+@Component
+public class UserSnapshotStore {
+
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<Long, Snapshot> snapshots;
+
+    @Autowired
+    public UserSnapshotStore(@Value("${user-snapshot.max-entries:10000}") int maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    public UserSnapshotStore(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+                return size() > UserSnapshotStore.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Сохранить последнее известное значение пользователя
+     *
+     * @param resource актуальные данные пользователя
+     */
+    public void put(UserResource resource) {
+        Snapshot snapshot = new Snapshot(copyOf(resource), clock.instant());
+        synchronized (snapshots) {
+            snapshots.put(resource.getId(), snapshot);
+        }
+    }
+
+    /**
+     * Получить копию последнего известного значения с указанием его возраста
+     *
+     * @param id ID пользователя
+     * @return копия с заполненным staleAgeSeconds или пустой Optional
+     */
+    public Optional<UserResource> getStale(Long id) {
+        Snapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(id);
+        }
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        UserResource resource = copyOf(snapshot.resource);
+        resource.setStaleAgeSeconds(Duration.between(snapshot.storedAt, clock.instant()).getSeconds());
+        return Optional.of(resource);
+    }
+
+    public void evict(Long id) {
+        synchronized (snapshots) {
+            snapshots.remove(id);
+        }
+    }
+
+    /**
+     * ID последних использованных записей, начиная с самых свежих
+     *
+     * @param limit максимальное число ID
+     */
+    public List<Long> recentIds(int limit) {
+        List<Long> ids;
+        synchronized (snapshots) {
+            ids = new ArrayList<>(snapshots.keySet());
+        }
+        List<Long> result = new ArrayList<>(Math.min(limit, ids.size()));
+        ListIterator<Long> iterator = ids.listIterator(ids.size());
+        while (iterator.hasPrevious() && result.size() < limit) {
+            result.add(iterator.previous());
+        }
+        return result;
+    }
+
+    /**
+     * @return максимальное число хранимых записей
+     */
+    public int capacity() {
+        return maxEntries;
+    }
+
+    public int size() {
+        synchronized (snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    private static UserResource copyOf(UserResource resource) {
+        return UserResource.builder()
+                .id(resource.getId())
+                .name(resource.getName())
+                .email(resource.getEmail())
+                .age(resource.getAge())
+                .createdAt(resource.getCreatedAt())
+                .build();
+    }
+
+    private static final class Snapshot {
+
+        private final UserResource resource;
+        private final Instant storedAt;
+
+        private Snapshot(UserResource resource, Instant storedAt) {
+            this.resource = resource;
+            this.storedAt = storedAt;
+        }
+    }
+}
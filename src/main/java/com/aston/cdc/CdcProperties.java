@@ -0,0 +1,51 @@
+package com.aston.cdc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки чтения изменений таблицы users через логическую репликацию
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-events.cdc")
+public class CdcProperties {
+
+    /**
+     * Логический слот репликации с плагином pgoutput
+     */
+    private String slotName = "user_events_slot";
+
+    /**
+     * Публикация, в которую входит таблица users
+     */
+    private String publicationName = "user_events_pub";
+
+    /**
+     * Максимальное число событий в одной пачке
+     */
+    private int batchSize = 500;
+
+    /**
+     * Пауза между опросами слота, когда новых изменений нет
+     */
+    private Duration pollInterval = Duration.ofMillis(20);
+
+    /**
+     * Период отправки статуса репликации в Postgres
+     */
+    private Duration statusInterval = Duration.ofSeconds(10);
+
+    /**
+     * Время ожидания подтверждения пачки от Kafka
+     */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Пауза перед переподключением после ошибки
+     */
+    private Duration retryBackoff = Duration.ofSeconds(5);
+}
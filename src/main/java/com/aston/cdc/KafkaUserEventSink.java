@@ -0,0 +1,43 @@
+package com.aston.cdc;
+
+import com.aston.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публикация событий CDC в топик user-events
+ *
+ * Формат совпадает с событиями KafkaEventService: ключ - ID пользователя,
+ * после события удаления отправляется tombstone
+ */
+@RequiredArgsConstructor
+public class KafkaUserEventSink implements UserEventSink {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String userEventsTopic;
+    private final Duration sendTimeout;
+
+    @Override
+    public void publish(List<UserEvent> events) throws Exception {
+        List<ListenableFuture<?>> futures = new ArrayList<>(events.size());
+        for (UserEvent event : events) {
+            String key = String.valueOf(event.getUserId());
+            futures.add(kafkaTemplate.send(userEventsTopic, key, event));
+            if (event.getEventType() == UserEvent.EventType.USER_DELETED) {
+                futures.add(kafkaTemplate.send(userEventsTopic, key, null));
+            }
+        }
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (ListenableFuture<?> future : futures) {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.aston.cdc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Разбор сообщений плагина pgoutput (протокол версии 1)
+ *
+ * Обрабатываются Begin, Commit, Relation, Insert, Update и Delete.
+ * Описания таблиц (Relation) запоминаются, так как приходят один раз
+ * перед первым изменением таблицы в рамках соединения
+ */
+public class PgOutputDecoder {
+
+    /**
+     * Получатель разобранных сообщений
+     */
+    public interface Handler {
+
+        void begin(long xid);
+
+        void change(RowChange change);
+
+        /**
+         * @param endLsn LSN конца транзакции, до которого можно подтверждать чтение
+         */
+        void commit(long endLsn);
+    }
+
+    private final Map<Integer, Relation> relations = new HashMap<>();
+
+    /**
+     * Разобрать одно сообщение
+     *
+     * @param buffer сообщение, позиция буфера - начало сообщения
+     * @param handler получатель
+     */
+    public void decode(ByteBuffer buffer, Handler handler) {
+        char type = (char) buffer.get();
+        switch (type) {
+            case 'B':
+                buffer.getLong(); // final LSN
+                buffer.getLong(); // commit timestamp
+                handler.begin(Integer.toUnsignedLong(buffer.getInt()));
+                break;
+            case 'C':
+                buffer.get(); // flags
+                buffer.getLong(); // commit LSN
+                handler.commit(buffer.getLong());
+                break;
+            case 'R':
+                readRelation(buffer);
+                break;
+            case 'I':
+                readInsert(buffer, handler);
+                break;
+            case 'U':
+                readUpdate(buffer, handler);
+                break;
+            case 'D':
+                readDelete(buffer, handler);
+                break;
+            default:
+                // Origin, Type, Truncate и служебные сообщения не влияют на события пользователей
+                break;
+        }
+    }
+
+    private void readRelation(ByteBuffer buffer) {
+        int oid = buffer.getInt();
+        readString(buffer); // schema, публикация содержит только таблицу users
+        String name = readString(buffer);
+        buffer.get(); // replica identity
+        int columnCount = buffer.getShort();
+        String[] columns = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            buffer.get(); // flags
+            columns[i] = readString(buffer);
+            buffer.getInt(); // type oid
+            buffer.getInt(); // type modifier
+        }
+        relations.put(oid, new Relation(name, columns));
+    }
+
+    private void readInsert(ByteBuffer buffer, Handler handler) {
+        Relation relation = relation(buffer.getInt());
+        buffer.get(); // 'N'
+        handler.change(new RowChange(RowChange.Operation.INSERT, relation.name, readTuple(buffer, relation)));
+    }
+
+    private void readUpdate(ByteBuffer buffer, Handler handler) {
+        Relation relation = relation(buffer.getInt());
+        char marker = (char) buffer.get();
+        if (marker == 'K' || marker == 'O') {
+            readTuple(buffer, relation);
+            buffer.get(); // 'N'
+        }
+        handler.change(new RowChange(RowChange.Operation.UPDATE, relation.name, readTuple(buffer, relation)));
+    }
+
+    private void readDelete(ByteBuffer buffer, Handler handler) {
+        Relation relation = relation(buffer.getInt());
+        buffer.get(); // 'K' или 'O'
+        handler.change(new RowChange(RowChange.Operation.DELETE, relation.name, readTuple(buffer, relation)));
+    }
+
+    private Map<String, String> readTuple(ByteBuffer buffer, Relation relation) {
+        int columnCount = buffer.getShort();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            char kind = (char) buffer.get();
+            if (kind == 't') {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                values.put(relation.columns[i], new String(bytes, StandardCharsets.UTF_8));
+            } else if (kind == 'n') {
+                values.put(relation.columns[i], null);
+            }
+            // 'u' - неизмененное TOAST-значение, в таблице users таких колонок нет
+        }
+        return values;
+    }
+
+    private Relation relation(int oid) {
+        Relation relation = relations.get(oid);
+        if (relation == null) {
+            throw new IllegalStateException("Изменение неизвестной таблицы, oid " + oid);
+        }
+        return relation;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // ищем завершающий ноль
+        }
+        int length = buffer.position() - start - 1;
+        byte[] bytes = new byte[length];
+        buffer.position(start);
+        buffer.get(bytes);
+        buffer.get();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Relation {
+
+        private final String name;
+        private final String[] columns;
+
+        private Relation(String name, String[] columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.aston.cdc;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Изменение строки таблицы, прочитанное из логической репликации
+ *
+ * Значения колонок передаются в текстовом формате pgoutput.
+ * Для DELETE содержит только ключевые колонки (REPLICA IDENTITY DEFAULT)
+ */
+public final class RowChange {
+
+    public enum Operation {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    private final Operation operation;
+    private final String table;
+    private final Map<String, String> columns;
+
+    RowChange(Operation operation, String table, Map<String, String> columns) {
+        this.operation = operation;
+        this.table = table;
+        this.columns = Collections.unmodifiableMap(columns);
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,239 @@
+package com.aston.cdc;
+
+import com.aston.dto.UserEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.springframework.context.SmartLifecycle;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Публикация изменений таблицы users из логической репликации Postgres
+ *
+ * Читает слот pgoutput в отдельном потоке, собирает события завершенных транзакций
+ * в пачки и передает их в UserEventSink в порядке коммитов. Позиция слота сдвигается
+ * только после подтверждения пачки, поэтому при сбое события публикуются повторно,
+ * но не теряются. Повторы отбрасываются потребителями по версии события.
+ *
+ * Требует wal_level=logical и пользователя с правом REPLICATION.
+ * Слот и публикация создаются при первом запуске
+ */
+@Slf4j
+public class UserCdcPublisher implements SmartLifecycle {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final CdcProperties properties;
+    private final UserEventSink sink;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public UserCdcPublisher(String jdbcUrl, String username, String password,
+                            CdcProperties properties, UserEventSink sink) {
+        if (!IDENTIFIER.matcher(properties.getSlotName()).matches()
+                || !IDENTIFIER.matcher(properties.getPublicationName()).matches()) {
+            throw new IllegalArgumentException("Некорректное имя слота или публикации");
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.properties = properties;
+        this.sink = sink;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "user-cdc");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(properties.getRetryBackoff().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                stream();
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Ошибка чтения слота репликации, переподключение: {}", kv("slot", properties.getSlotName()), e);
+                sleep(properties.getRetryBackoff().toMillis());
+            }
+        }
+    }
+
+    private void stream() throws Exception {
+        try (Connection connection = openReplicationConnection()) {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            ensurePublication(connection);
+            ensureSlot(connection, pgConnection);
+
+            PGReplicationStream stream = pgConnection.getReplicationAPI()
+                    .replicationStream()
+                    .logical()
+                    .withSlotName(properties.getSlotName())
+                    .withSlotOption("proto_version", 1)
+                    .withSlotOption("publication_names", properties.getPublicationName())
+                    .withStatusInterval((int) properties.getStatusInterval().toMillis(), TimeUnit.MILLISECONDS)
+                    .start();
+            log.info("Чтение изменений таблицы users запущено: {}", kv("slot", properties.getSlotName()));
+
+            Batch batch = new Batch();
+            PgOutputDecoder decoder = new PgOutputDecoder();
+            try {
+                while (running) {
+                    ByteBuffer message = stream.readPending();
+                    if (message == null) {
+                        // изменений больше нет - отправляем накопленное, не дожидаясь заполнения пачки
+                        flush(stream, batch);
+                        sleep(properties.getPollInterval().toMillis());
+                        continue;
+                    }
+                    decoder.decode(message, batch);
+                    if (batch.committed.size() >= properties.getBatchSize()) {
+                        flush(stream, batch);
+                    }
+                }
+            } finally {
+                stream.close();
+            }
+        }
+    }
+
+    private void flush(PGReplicationStream stream, Batch batch) throws Exception {
+        if (batch.committedLsn == 0) {
+            return;
+        }
+        if (!batch.committed.isEmpty()) {
+            sink.publish(batch.committed);
+            log.debug("Пачка событий CDC опубликована: {}", kv("events", batch.committed.size()));
+        }
+        LogSequenceNumber lsn = LogSequenceNumber.valueOf(batch.committedLsn);
+        stream.setAppliedLSN(lsn);
+        stream.setFlushedLSN(lsn);
+        stream.forceUpdateStatus();
+        batch.committed = new ArrayList<>();
+        batch.committedLsn = 0;
+    }
+
+    private Connection openReplicationConnection() throws SQLException {
+        Properties props = new Properties();
+        PGProperty.USER.set(props, username);
+        PGProperty.PASSWORD.set(props, password);
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(props, "10");
+        PGProperty.REPLICATION.set(props, "database");
+        PGProperty.PREFER_QUERY_MODE.set(props, "simple");
+        return DriverManager.getConnection(jdbcUrl, props);
+    }
+
+    private void ensurePublication(Connection connection) throws SQLException {
+        if (exists(connection, "SELECT 1 FROM pg_publication WHERE pubname = ?", properties.getPublicationName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE PUBLICATION " + properties.getPublicationName()
+                    + " FOR TABLE " + UserChangeMapper.USERS_TABLE);
+        }
+        log.info("Публикация создана: {}", kv("publication", properties.getPublicationName()));
+    }
+
+    private void ensureSlot(Connection connection, PGConnection pgConnection) throws SQLException {
+        if (exists(connection, "SELECT 1 FROM pg_replication_slots WHERE slot_name = ?", properties.getSlotName())) {
+            return;
+        }
+        pgConnection.getReplicationAPI()
+                .createReplicationSlot()
+                .logical()
+                .withSlotName(properties.getSlotName())
+                .withOutputPlugin("pgoutput")
+                .make();
+        log.info("Слот репликации создан: {}", kv("slot", properties.getSlotName()));
+    }
+
+    private static boolean exists(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * События текущей транзакции и завершенных транзакций, ожидающих публикации
+     */
+    private static final class Batch implements PgOutputDecoder.Handler {
+
+        private final List<UserEvent> transaction = new ArrayList<>();
+        private List<UserEvent> committed = new ArrayList<>();
+        private long committedLsn;
+
+        @Override
+        public void begin(long xid) {
+            transaction.clear();
+        }
+
+        @Override
+        public void change(RowChange change) {
+            if (UserChangeMapper.USERS_TABLE.equals(change.getTable())) {
+                transaction.add(UserChangeMapper.toEvent(change));
+            }
+        }
+
+        @Override
+        public void commit(long endLsn) {
+            committed.addAll(transaction);
+            transaction.clear();
+            committedLsn = endLsn;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.aston.cdc;
+
+import com.aston.dto.UserEvent;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Map;
+
+/**
+ * Преобразование изменения строки таблицы users в UserEvent
+ */
+final class UserChangeMapper {
+
+    static final String USERS_TABLE = "users";
+
+    /**
+     * Формат timestamp в текстовом выводе Postgres: дробная часть от 0 до 6 знаков
+     */
+    private static final DateTimeFormatter TIMESTAMP = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .toFormatter();
+
+    private UserChangeMapper() {
+    }
+
+    static UserEvent toEvent(RowChange change) {
+        Map<String, String> columns = change.getColumns();
+        return UserEvent.builder()
+                .eventType(eventType(change.getOperation()))
+                .userId(parseLong(columns.get("id")))
+                .name(columns.get("name"))
+                .email(columns.get("email"))
+                .age(columns.get("age") == null ? null : Integer.valueOf(columns.get("age")))
+                .createdAt(columns.get("created_at") == null ? null : LocalDateTime.parse(columns.get("created_at"), TIMESTAMP))
+                .version(parseLong(columns.get("version")))
+                .build();
+    }
+
+    private static UserEvent.EventType eventType(RowChange.Operation operation) {
+        switch (operation) {
+            case INSERT:
+                return UserEvent.EventType.USER_CREATED;
+            case UPDATE:
+                return UserEvent.EventType.USER_UPDATED;
+            default:
+                return UserEvent.EventType.USER_DELETED;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+}
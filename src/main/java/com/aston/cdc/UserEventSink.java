@@ -0,0 +1,22 @@
+package com.aston.cdc;
+
+import com.aston.dto.UserEvent;
+
+import java.util.List;
+
+/**
+ * Получатель событий пользователей из CDC
+ */
+public interface UserEventSink {
+
+    /**
+     * Опубликовать пачку событий в порядке фиксации транзакций
+     *
+     * Метод возвращает управление только после подтверждения всех событий:
+     * после этого позиция в слоте репликации сдвигается и события не будут прочитаны повторно
+     *
+     * @param events события в порядке коммитов
+     * @throws Exception если пачку не удалось опубликовать, она будет прочитана заново
+     */
+    void publish(List<UserEvent> events) throws Exception;
+}
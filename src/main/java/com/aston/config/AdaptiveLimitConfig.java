@@ -0,0 +1,56 @@
+package com.aston.config;
+
+import com.aston.resilience.AdaptiveConcurrencyLimiter;
+import com.aston.resilience.AdaptiveLimitProperties;
+import com.aston.resilience.RepositoryConcurrencyLimitAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Адаптивное ограничение одновременных обращений к БД
+ *
+ * Лимит и число отказов публикуются в метриках:
+ * db.concurrency.limit, db.concurrency.in-flight, db.concurrency.p99, db.concurrency.rejected
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "resilience.adaptive-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter repositoryConcurrencyLimiter(AdaptiveLimitProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getLatencyThreshold().toNanos(),
+                properties.getBackoffRatio(),
+                properties.getWindowSize());
+
+        Gauge.builder("db.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий адаптивный лимит одновременных обращений к БД")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Число выполняющихся обращений к БД")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.p99", limiter, l -> l.getLastP99Nanos() / 1_000_000.0)
+                .description("p99 задержки обращений к БД за последнее окно")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("db.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .description("Число обращений к БД, отклоненных лимитом")
+                .register(meterRegistry);
+
+        return limiter;
+    }
+
+    @Bean
+    public RepositoryConcurrencyLimitAspect repositoryConcurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter,
+                                                                             AdaptiveLimitProperties properties) {
+        return new RepositoryConcurrencyLimitAspect(limiter, properties.getRetryAfterSeconds());
+    }
+}
@@ -0,0 +1,42 @@
+package com.aston.config;
+
+import com.aston.cdc.CdcProperties;
+import com.aston.cdc.KafkaUserEventSink;
+import com.aston.cdc.UserCdcPublisher;
+import com.aston.cdc.UserEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Публикация событий пользователей из логической репликации Postgres
+ *
+ * Включается свойством user-events.source=cdc. В этом режиме KafkaEventService
+ * не отправляет события из запросов, и обработка запроса не обращается к Kafka
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user-events", name = "source", havingValue = "cdc")
+public class CdcConfig {
+
+    @Bean
+    public UserEventSink userEventSink(KafkaTemplate<String, Object> kafkaTemplate,
+                                       @Value("${kafka.topics.user-events}") String userEventsTopic,
+                                       CdcProperties properties) {
+        return new KafkaUserEventSink(kafkaTemplate, userEventsTopic, properties.getSendTimeout());
+    }
+
+    @Bean
+    public UserCdcPublisher userCdcPublisher(DataSourceProperties dataSourceProperties,
+                                             CdcProperties properties,
+                                             UserEventSink userEventSink) {
+        return new UserCdcPublisher(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                properties,
+                userEventSink);
+    }
+}
@@ -0,0 +1,32 @@
+package com.aston.config;
+
+import com.aston.grpc.GrpcServerProperties;
+import com.aston.grpc.UserGrpcServer;
+import com.aston.grpc.UserGrpcService;
+import com.aston.service.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.Validator;
+
+/**
+ * gRPC-сервер чтения пользователей рядом с REST API
+ *
+ * Отключается свойством grpc.server.enabled=false
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "grpc.server", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcConfig {
+
+    @Bean
+    public UserGrpcService userGrpcService(UserService userService, Validator validator,
+                                           GrpcServerProperties properties) {
+        return new UserGrpcService(userService, validator, properties.getListPageSize());
+    }
+
+    @Bean
+    public UserGrpcServer userGrpcServer(GrpcServerProperties properties, UserGrpcService userGrpcService) {
+        return new UserGrpcServer(properties, userGrpcService);
+    }
+}
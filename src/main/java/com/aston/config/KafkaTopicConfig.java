@@ -0,0 +1,45 @@
+package com.aston.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+/**
+ * Топик user-events как компактифицируемый поток изменений
+ *
+ * Kafka хранит последнее событие для каждого ID пользователя, а tombstone
+ * удаляет пользователя из топика после delete.retention.ms.
+ * Если топик уже создан, KafkaAdmin не меняет его настройки -
+ * cleanup.policy нужно изменить через kafka-configs
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${kafka.topics.user-events}")
+    private String userEventsTopic;
+
+    @Value("${kafka.topics.user-events-partitions:3}")
+    private int partitions;
+
+    @Value("${kafka.topics.user-events-replicas:1}")
+    private int replicas;
+
+    @Value("${kafka.topics.user-events-tombstone-retention:1d}")
+    private Duration tombstoneRetention;
+
+    @Bean
+    public NewTopic userEventsTopic() {
+        return TopicBuilder.name(userEventsTopic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, String.valueOf(tombstoneRetention.toMillis()))
+                .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, String.valueOf(Duration.ofMinutes(1).toMillis()))
+                .build();
+    }
+}
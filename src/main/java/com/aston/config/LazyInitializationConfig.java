@@ -0,0 +1,29 @@
+package com.aston.config;
+
+import com.aston.cache.UserCacheInvalidationListener;
+import com.aston.cache.UserSnapshotRefresher;
+import com.aston.projection.UserProjectionListener;
+import com.aston.projection.UserReplicaSnapshotter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Бины, которые создаются сразу даже при spring.main.lazy-initialization=true
+ *
+ * К ним никто не обращается, они работают сами: подписываются на события
+ * circuit breaker, пишут снимки по расписанию, читают Kafka. При ленивой
+ * инициализации такие бины не были бы созданы вовсе
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                UserSnapshotRefresher.class,
+                UserReplicaSnapshotter.class,
+                UserProjectionListener.class,
+                UserCacheInvalidationListener.class);
+    }
+}
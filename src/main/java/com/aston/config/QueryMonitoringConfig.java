@@ -0,0 +1,56 @@
+package com.aston.config;
+
+import com.aston.monitoring.QueryCountFilter;
+import com.aston.monitoring.QueryCountListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Инструментирование DataSource для подсчета SQL-запросов
+ *
+ * Оборачивает DataSource прокси datasource-proxy и регистрирует фильтр,
+ * который считает запросы к БД на каждый HTTP-запрос
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "monitoring.queries", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMonitoringConfig {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(
+            @Value("${monitoring.queries.slow-threshold-ms:200}") long slowThresholdMs) {
+        QueryCountListener listener = new QueryCountListener(slowThresholdMs);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .name(beanName)
+                            .listener(listener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(
+            @Value("${monitoring.queries.max-per-request:10}") int maxQueriesPerRequest,
+            @Value("${monitoring.queries.repeated-statement-threshold:5}") int repeatedStatementThreshold) {
+        FilterRegistrationBean<QueryCountFilter> registration =
+                new FilterRegistrationBean<>(new QueryCountFilter(maxQueriesPerRequest, repeatedStatementThreshold));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
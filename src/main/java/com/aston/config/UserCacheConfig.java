@@ -0,0 +1,105 @@
+package com.aston.config;
+
+import com.aston.cache.NearUserCache;
+import com.aston.cache.RedisSharedUserCache;
+import com.aston.cache.TwoLevelUserCache;
+import com.aston.cache.UserCache;
+import com.aston.cache.UserCacheInvalidationListener;
+import com.aston.cache.UserCacheProperties;
+import com.aston.dto.UserEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.StringUtils;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Кэш пользователей для развертывания в несколько экземпляров
+ *
+ * При user-cache.enabled=true чтение по ID идет через ближний кэш экземпляра
+ * и общий кэш в Redis, а изменения очищают кэши всех экземпляров через
+ * user-events. Без свойства кэш не используется и Redis не нужен
+ */
+@Configuration
+public class UserCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-cache", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public UserCache noUserCache() {
+        return UserCache.NONE;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "user-cache", name = "enabled", havingValue = "true")
+    static class TwoLevelUserCacheConfig {
+
+        @Value("${spring.kafka.bootstrap-servers}")
+        private String bootstrapServers;
+
+        @Bean
+        public UserCache twoLevelUserCache(UserCacheProperties properties, StringRedisTemplate redisTemplate,
+                                           ObjectMapper objectMapper) {
+            NearUserCache nearCache = new NearUserCache(properties.getNear().getMaxEntries(),
+                    properties.getNear().getTtl(), Clock.systemUTC());
+            RedisSharedUserCache sharedCache = new RedisSharedUserCache(redisTemplate, objectMapper,
+                    properties.getShared().getKeyPrefix(), properties.getShared().getTtl());
+            return new TwoLevelUserCache(nearCache, sharedCache);
+        }
+
+        /**
+         * Каждый экземпляр читает все партиции своей группой и только новые сообщения:
+         * кэш при старте пуст, история изменений ему не нужна. Поэтому смещения не
+         * фиксируются, и группы остановленных экземпляров не оставляют их на брокере
+         */
+        @Bean
+        public ConsumerFactory<String, UserEvent> userCacheInvalidationConsumerFactory(UserCacheProperties properties) {
+            String instanceId = StringUtils.hasText(properties.getInstanceId())
+                    ? properties.getInstanceId()
+                    : UUID.randomUUID().toString();
+            Map<String, Object> configProps = new HashMap<>();
+            configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+            configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "user-cache-" + instanceId);
+            configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+            configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+            configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+            configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, UserEvent.class.getName());
+            configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+            configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.aston.dto");
+
+            return new DefaultKafkaConsumerFactory<>(configProps);
+        }
+
+        @Bean
+        public ConcurrentKafkaListenerContainerFactory<String, UserEvent> userCacheInvalidationListenerContainerFactory(
+                ConsumerFactory<String, UserEvent> userCacheInvalidationConsumerFactory) {
+            ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory =
+                    new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(userCacheInvalidationConsumerFactory);
+            // без фиксации смещений контейнер не должен их коммитить сам
+            factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+            return factory;
+        }
+
+        @Bean
+        public UserCacheInvalidationListener userCacheInvalidationListener(UserCache twoLevelUserCache) {
+            return new UserCacheInvalidationListener(twoLevelUserCache);
+        }
+    }
+}
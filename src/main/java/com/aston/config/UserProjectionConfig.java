@@ -0,0 +1,90 @@
+package com.aston.config;
+
+import com.aston.dto.UserEvent;
+import com.aston.projection.UserProjectionListener;
+import com.aston.projection.UserProjectionProperties;
+import com.aston.projection.UserReplica;
+import com.aston.projection.UserReplicaSnapshotter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Локальная реплика пользователей, построенная из топика user-events
+ *
+ * Включается свойством user-projection.enabled. Размер реплики публикуется
+ * в метрике user.projection.size
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user-projection", name = "enabled", havingValue = "true")
+public class UserProjectionConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public UserReplica userReplica(MeterRegistry meterRegistry) {
+        UserReplica replica = new UserReplica();
+        Gauge.builder("user.projection.size", replica, UserReplica::size)
+                .description("Число пользователей в локальной реплике")
+                .register(meterRegistry);
+        return replica;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-projection", name = "snapshot-path")
+    public UserReplicaSnapshotter userReplicaSnapshotter(UserReplica userReplica,
+                                                         UserProjectionProperties properties) {
+        return new UserReplicaSnapshotter(userReplica, Paths.get(properties.getSnapshotPath()),
+                properties.getSnapshotInterval());
+    }
+
+    @Bean
+    public ConsumerFactory<String, UserEvent> userProjectionConsumerFactory(UserProjectionProperties properties) {
+        String groupId = properties.getGroupId() != null
+                ? properties.getGroupId()
+                : "user-projection-" + UUID.randomUUID();
+
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, UserEvent.class.getName());
+        configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.aston.dto");
+
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> userProjectionListenerContainerFactory(
+            ConsumerFactory<String, UserEvent> userProjectionConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(userProjectionConsumerFactory);
+        return factory;
+    }
+
+    @Bean
+    public UserProjectionListener userProjectionListener(UserReplica userReplica) {
+        return new UserProjectionListener(userReplica);
+    }
+}
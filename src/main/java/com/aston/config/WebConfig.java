@@ -1,10 +1,15 @@
 package com.aston.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * Конфигурация веб-слоя приложения.
  *
@@ -32,4 +37,17 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/swagger-ui/**")
                 .addResourceLocations("classpath:/META-INF/resources/webjars/springdoc-openapi-ui/");
     }
-}
\ No newline at end of file
+
+    /**
+     * CBOR и Smile нужны только для ответов компактного представления,
+     * их пишет CompactUserMessageConverter, в том числе ошибки. Стандартные конвертеры Spring,
+     * подключаемые по наличию библиотек, принимали бы эти форматы в телах POST и PUT
+     *
+     * @param converters - конвертеры сообщений
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+    }
+}
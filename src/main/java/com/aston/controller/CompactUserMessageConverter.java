@@ -0,0 +1,132 @@
+package com.aston.controller;
+
+import com.aston.dto.CompactUser;
+import com.aston.dto.CompactUserPage;
+import com.aston.dto.CompactUserStream;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Запись компактного представления пользователей
+ *
+ * Сериализует CompactUser и CompactUserPage заранее построенными ObjectWriter,
+ * минуя HAL-модуль Jackson и поиск сериализатора на каждый ответ.
+ * Поддерживает компактный JSON и бинарные форматы CBOR и Smile;
+ * тело пишется генератором Jackson прямо в поток ответа без промежуточного буфера.
+ * CompactUserStream пишется по одному пользователю по мере чтения из БД,
+ * поэтому полный список не собирается в памяти. ErrorResponse пишется в тех же форматах,
+ * чтобы клиент, запросивший CBOR или Smile, получил ошибку с исходным статусом
+ */
+@Component
+public class CompactUserMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(CompactUser.MEDIA_TYPE);
+    public static final MediaType CBOR = MediaType.parseMediaType(CompactUser.CBOR_MEDIA_TYPE);
+    public static final MediaType SMILE = MediaType.parseMediaType(CompactUser.SMILE_MEDIA_TYPE);
+
+    private final Map<MediaType, Writers> writers;
+
+    public CompactUserMessageConverter(ObjectMapper objectMapper) {
+        super(COMPACT_JSON, CBOR, SMILE);
+        this.writers = Map.of(
+                COMPACT_JSON, new Writers(objectMapper),
+                CBOR, new Writers(Jackson2ObjectMapperBuilder.cbor().build()),
+                SMILE, new Writers(Jackson2ObjectMapperBuilder.smile().build()));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == CompactUser.class || clazz == CompactUserPage.class || clazz == CompactUserStream.class
+                || clazz == ErrorResponse.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Компактное представление поддерживается только для ответов", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        Writers formatWriters = writersFor(outputMessage.getHeaders().getContentType());
+        if (value instanceof CompactUserStream) {
+            writeStream((CompactUserStream) value, formatWriters, outputMessage);
+            return;
+        }
+        ObjectWriter writer;
+        if (value instanceof ErrorResponse) {
+            writer = formatWriters.error;
+        } else {
+            writer = value instanceof CompactUserPage ? formatWriters.page : formatWriters.user;
+        }
+        writer.writeValue(outputMessage.getBody(), value);
+    }
+
+    /**
+     * Записать {"items": [...]} генератором: каждый пользователь сериализуется сразу после чтения,
+     * генератор сбрасывает буфер в поток ответа по мере заполнения
+     */
+    private void writeStream(CompactUserStream stream, Writers formatWriters, HttpOutputMessage outputMessage)
+            throws IOException {
+        try (JsonGenerator generator = formatWriters.item.createGenerator(outputMessage.getBody())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            stream.forEach(user -> {
+                try {
+                    formatWriters.item.writeValue(generator, user);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Writers writersFor(MediaType contentType) {
+        if (contentType != null) {
+            for (Map.Entry<MediaType, Writers> entry : writers.entrySet()) {
+                if (entry.getKey().isCompatibleWith(contentType)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return writers.get(COMPACT_JSON);
+    }
+
+    private static final class Writers {
+
+        private final ObjectWriter user;
+        private final ObjectWriter page;
+        private final ObjectWriter item;
+        private final ObjectWriter error;
+
+        private Writers(ObjectMapper mapper) {
+            // поток ответа закрывает контейнер, а не Jackson
+            this.user = mapper.writerFor(CompactUser.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.page = mapper.writerFor(CompactUserPage.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // элемент потока не сбрасывает буфер после каждого пользователя
+            this.item = user.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.error = mapper.writerFor(ErrorResponse.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.aston.controller;
+
+import com.aston.dto.BulkOperationResult;
+import com.aston.dto.BulkUserRequest;
+import com.aston.service.UserBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * REST-контроллер массовых операций над пользователями
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "API для управления пользователями")
+public class UserBulkController {
+
+    private final UserBulkService userBulkService;
+
+    @PostMapping("/bulk-delete")
+    @Operation(
+            summary = "Удалить пользователей",
+            description = "Удаляет пользователей по списку ID или диапазону возраста"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Пользователи удалены",
+                    content = @Content(schema = @Schema(implementation = BulkOperationResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Пользователи не выбраны",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<BulkOperationResult> bulkDelete(
+            @Parameter(description = "Выбор пользователей", required = true)
+            @Valid @RequestBody BulkUserRequest request) {
+
+        log.info("POST /api/v1/users/bulk-delete - Массовое удаление пользователей");
+        return ResponseEntity.ok(userBulkService.deleteUsers(request));
+    }
+
+    @PostMapping("/bulk-update")
+    @Operation(
+            summary = "Изменить возраст пользователей",
+            description = "Устанавливает возраст age пользователям по списку ID или диапазону возраста"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Пользователи изменены",
+                    content = @Content(schema = @Schema(implementation = BulkOperationResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Пользователи или новый возраст не указаны",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<BulkOperationResult> bulkUpdate(
+            @Parameter(description = "Выбор пользователей и новый возраст", required = true)
+            @Valid @RequestBody BulkUserRequest request) {
+
+        log.info("POST /api/v1/users/bulk-update - Массовое изменение пользователей");
+        return ResponseEntity.ok(userBulkService.updateAge(request));
+    }
+}
@@ -1,8 +1,16 @@
 package com.aston.controller;
 
+import com.aston.dto.CompactUser;
+import com.aston.dto.CompactUserPage;
+import com.aston.dto.CompactUserStream;
+import com.aston.dto.UserFilter;
+import com.aston.dto.UserPage;
 import com.aston.dto.UserRequest;
 import com.aston.dto.UserResource;
 import com.aston.dto.UserResourceCollection;
+import com.aston.logging.LogMasker;
+import com.aston.logging.LogSampler;
+import com.aston.service.IdempotencyService;
 import com.aston.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,11 +21,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -30,7 +42,10 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
  *
  * Обработка HTTP-запросов
  * Включает в себя эндпоинты для работы CRUD-операций
- * с поддержкой Swagger документации и HATEOAS
+ * с поддержкой Swagger документации и HATEOAS.
+ * Операции чтения также отдают компактное представление без ссылок
+ * при Accept: application/vnd.users.compact+json, application/cbor
+ * или application/x-jackson-smile
  */
 @Slf4j
 @Validated
@@ -40,7 +55,12 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Tag(name = "Users", description = "API для управления пользователями")
 public class UserController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
+    private final LogSampler logSampler;
 
     @PostMapping
     @Operation(
@@ -66,19 +86,34 @@ public class UserController {
     })
     public ResponseEntity<EntityModel<UserResource>> createUser(
             @Parameter(description = "Данные нового пользователя", required = true)
-            @Valid @RequestBody UserRequest userRequest) {
-
-        log.info("POST /api/v1/users - Создание пользователя: {}", userRequest.getEmail());
-        UserResource response = userService.createUser(userRequest);
+            @Valid @RequestBody UserRequest userRequest,
+            @Parameter(description = "Ключ идемпотентности: повтор запроса с тем же ключом вернет исходный ответ")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        if (logSampler.isInfoSampled(log, "http.user.create")) {
+            log.info("POST /api/v1/users - Создание пользователя: {}", LogMasker.email(userRequest.getEmail()));
+        }
+
+        UserResource response;
+        boolean replayed = false;
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            response = userService.createUser(userRequest);
+        } else {
+            IdempotencyService.Result result =
+                    idempotencyService.execute(idempotencyKey, userRequest, () -> userService.createUser(userRequest));
+            response = result.getResource();
+            replayed = result.isReplayed();
+        }
 
         EntityModel<UserResource> resource = EntityModel.of(response);
         resource.add(linkTo(methodOn(UserController.class).getUserById(response.getId())).withSelfRel());
         resource.add(linkTo(methodOn(UserController.class).updateUser(response.getId(), userRequest)).withRel("update"));
         resource.add(linkTo(methodOn(UserController.class).deleteUser(response.getId())).withRel("delete"));
-        resource.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("users"));
+        resource.add(linkTo(methodOn(UserController.class).getAllUsers(null)).withRel("users"));
 
         return ResponseEntity
                 .created(resource.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(replayed))
                 .body(resource);
     }
 
@@ -110,28 +145,73 @@ public class UserController {
         resource.add(linkTo(methodOn(UserController.class).getUserById(id)).withSelfRel());
         resource.add(linkTo(methodOn(UserController.class).updateUser(id, new UserRequest())).withRel("update"));
         resource.add(linkTo(methodOn(UserController.class).deleteUser(id)).withRel("delete"));
-        resource.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("users"));
+        resource.add(linkTo(methodOn(UserController.class).getAllUsers(null)).withRel("users"));
         resource.add(linkTo(methodOn(UserController.class).getUserByEmail(response.getEmail())).withRel("by-email"));
 
+        if (response.getStaleAgeSeconds() != null) {
+            // данные из локального снимка: БД недоступна, сообщаем клиенту возраст ответа
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.AGE, String.valueOf(response.getStaleAgeSeconds()))
+                    .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                    .body(resource);
+        }
         return ResponseEntity.ok(resource);
     }
 
+    @GetMapping(value = "/{id}", produces = {CompactUser.MEDIA_TYPE, CompactUser.CBOR_MEDIA_TYPE, CompactUser.SMILE_MEDIA_TYPE})
+    @Operation(
+            summary = "Получить пользователя по ID в компактном виде",
+            description = "Возвращает пользователя без ссылок HATEOAS"
+    )
+    public ResponseEntity<CompactUser> getUserByIdCompact(
+            @Parameter(description = "ID пользователя", required = true, example = "1")
+            @PathVariable Long id) {
+
+        log.debug("GET /api/v1/users/{} - Получение пользователя по ID в компактном виде", id);
+        UserResource response = userService.getUserById(id);
+
+        if (response.getStaleAgeSeconds() != null) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.AGE, String.valueOf(response.getStaleAgeSeconds()))
+                    .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                    .body(CompactUser.from(response));
+        }
+        return ResponseEntity.ok(CompactUser.from(response));
+    }
+
     @GetMapping
     @Operation(
-            summary = "Получить всех пользователей",
-            description = "Возвращает список всех пользователей в системе"
+            summary = "Получить пользователей",
+            description = "Без параметров возвращает список всех пользователей. "
+                    + "С параметрами фильтрует по возрасту и дате создания, сортирует и возвращает страницу "
+                    + "размером limit со ссылкой next на следующую страницу. "
+                    + "Пользователи без возраста или даты создания при сортировке по этому полю идут в конце"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Список пользователей успешно получен",
                     content = @Content(schema = @Schema(implementation = UserResourceCollection.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные параметры фильтра или курсор другой сортировки",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
-    public ResponseEntity<UserResourceCollection> getAllUsers() {
-
-        log.debug("GET /api/v1/users - Получение всех пользователей");
-        List<UserResource> users = userService.getAllUsers();
+    public ResponseEntity<UserResourceCollection> getAllUsers(@ParameterObject @Valid UserFilter filter) {
+
+        List<UserResource> users;
+        String nextCursor = null;
+        if (filter == null || filter.isEmpty()) {
+            log.debug("GET /api/v1/users - Получение всех пользователей");
+            users = userService.getAllUsers();
+        } else {
+            log.debug("GET /api/v1/users - Получение пользователей по фильтру: {}", filter);
+            UserPage page = userService.findUsers(filter);
+            users = page.getItems();
+            nextCursor = page.getNextCursor();
+        }
 
         List<EntityModel<UserResource>> userResources = users.stream()
                 .map(user -> {
@@ -144,12 +224,41 @@ public class UserController {
                 .collect(Collectors.toList());
 
         UserResourceCollection collection = new UserResourceCollection(userResources);
-        collection.add(linkTo(methodOn(UserController.class).getAllUsers()).withSelfRel());
-        collection.add(linkTo(methodOn(UserController.class).createUser(new UserRequest())).withRel("create"));
+        collection.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if (nextCursor != null) {
+            collection.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .toUriString()).withRel(IanaLinkRelations.NEXT));
+        }
+        collection.add(linkTo(methodOn(UserController.class).createUser(new UserRequest(), null)).withRel("create"));
 
         return ResponseEntity.ok(collection);
     }
 
+    @GetMapping(produces = {CompactUser.MEDIA_TYPE, CompactUser.CBOR_MEDIA_TYPE, CompactUser.SMILE_MEDIA_TYPE})
+    @Operation(
+            summary = "Получить пользователей в компактном виде",
+            description = "Те же параметры, что и у списка пользователей; ответ без ссылок HATEOAS, "
+                    + "курсор следующей страницы передается в поле nextCursor. "
+                    + "Без параметров список пишется в ответ по мере чтения из БД"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Список пользователей успешно получен",
+                    content = @Content(schema = @Schema(implementation = CompactUserPage.class))
+            )
+    })
+    public ResponseEntity<Object> getAllUsersCompact(@ParameterObject @Valid UserFilter filter) {
+
+        if (filter.isEmpty()) {
+            log.debug("GET /api/v1/users - Получение всех пользователей в компактном виде");
+            return ResponseEntity.ok(new CompactUserStream(userService::forEachUserCompact));
+        }
+        log.debug("GET /api/v1/users - Получение пользователей по фильтру в компактном виде: {}", filter);
+        return ResponseEntity.ok(userService.findUsersCompact(filter));
+    }
+
     @GetMapping("/search")
     @Operation(
             summary = "Поиск пользователей по имени",
@@ -184,7 +293,7 @@ public class UserController {
 
         UserResourceCollection collection = new UserResourceCollection(userResources);
         collection.add(linkTo(methodOn(UserController.class).getUsersByName(name)).withSelfRel());
-        collection.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("all-users"));
+        collection.add(linkTo(methodOn(UserController.class).getAllUsers(null)).withRel("all-users"));
 
         return ResponseEntity.ok(collection);
     }
@@ -210,7 +319,7 @@ public class UserController {
             @Parameter(description = "Email пользователя", required = true, example = "user@example.com")
             @PathVariable String email) {
 
-        log.debug("GET /api/v1/users/email/{} - Поиск пользователя по email", email);
+        log.debug("GET /api/v1/users/email/{} - Поиск пользователя по email", LogMasker.email(email));
         UserResource response = userService.getUserByEmail(email);
 
         EntityModel<UserResource> resource = EntityModel.of(response);
@@ -222,6 +331,19 @@ public class UserController {
         return ResponseEntity.ok(resource);
     }
 
+    @GetMapping(value = "/email/{email}", produces = {CompactUser.MEDIA_TYPE, CompactUser.CBOR_MEDIA_TYPE, CompactUser.SMILE_MEDIA_TYPE})
+    @Operation(
+            summary = "Получить пользователя по email в компактном виде",
+            description = "Возвращает пользователя без ссылок HATEOAS"
+    )
+    public ResponseEntity<CompactUser> getUserByEmailCompact(
+            @Parameter(description = "Email пользователя", required = true, example = "user@example.com")
+            @PathVariable String email) {
+
+        log.debug("GET /api/v1/users/email/{} - Поиск пользователя по email в компактном виде", LogMasker.email(email));
+        return ResponseEntity.ok(CompactUser.from(userService.getUserByEmail(email)));
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Обновить данные пользователя",
@@ -255,14 +377,16 @@ public class UserController {
             @Parameter(description = "Новые данные пользователя", required = true)
             @Valid @RequestBody UserRequest userRequest) {
 
-        log.info("PUT /api/v1/users/{} - Обновление пользователя", id);
+        if (logSampler.isInfoSampled(log, "http.user.update")) {
+            log.info("PUT /api/v1/users/{} - Обновление пользователя", id);
+        }
         UserResource response = userService.updateUser(id, userRequest);
 
         EntityModel<UserResource> resource = EntityModel.of(response);
         resource.add(linkTo(methodOn(UserController.class).getUserById(id)).withSelfRel());
         resource.add(linkTo(methodOn(UserController.class).updateUser(id, userRequest)).withRel("update"));
         resource.add(linkTo(methodOn(UserController.class).deleteUser(id)).withRel("delete"));
-        resource.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("users"));
+        resource.add(linkTo(methodOn(UserController.class).getAllUsers(null)).withRel("users"));
 
         return ResponseEntity.ok(resource);
     }
@@ -287,7 +411,9 @@ public class UserController {
             @Parameter(description = "ID пользователя", required = true, example = "1")
             @PathVariable Long id) {
 
-        log.info("DELETE /api/v1/users/{} - Удаление пользователя", id);
+        if (logSampler.isInfoSampled(log, "http.user.delete")) {
+            log.info("DELETE /api/v1/users/{} - Удаление пользователя", id);
+        }
         userService.deleteUser(id);
 
         return ResponseEntity.noContent().build();
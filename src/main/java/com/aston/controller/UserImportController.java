@@ -0,0 +1,77 @@
+package com.aston.controller;
+
+import com.aston.dto.UserImportReport;
+import com.aston.exception.UserException;
+import com.aston.importer.ImportFormat;
+import com.aston.importer.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST-контроллер массового импорта пользователей
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/users/import")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "API для управления пользователями")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Импортировать пользователей из файла",
+            description = "Загружает пользователей из CSV (заголовок name,email,age) или JSONL. "
+                    + "Некорректные строки и повторы email пропускаются и перечисляются в отчете"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Импорт выполнен",
+                    content = @Content(schema = @Schema(implementation = UserImportReport.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Неподдерживаемый формат или некорректный заголовок файла",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Уже выполняется другой импорт",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<UserImportReport> importUsers(
+            @Parameter(description = "Файл CSV или JSONL в кодировке UTF-8", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Формат файла: csv или jsonl. По умолчанию определяется по расширению")
+            @RequestParam(value = "format", required = false) String format) {
+
+        ImportFormat importFormat = ImportFormat.resolve(format, file.getOriginalFilename());
+        log.info("POST /api/v1/users/import - Импорт пользователей: {} байт, формат {}", file.getSize(), importFormat);
+
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(userImportService.importUsers(input, importFormat));
+        } catch (IOException e) {
+            throw new UserException("Не удалось прочитать файл импорта: " + e.getMessage());
+        }
+    }
+}
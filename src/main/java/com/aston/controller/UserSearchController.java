@@ -0,0 +1,76 @@
+package com.aston.controller;
+
+import com.aston.dto.UserSearchResult;
+import com.aston.logging.LogMasker;
+import com.aston.service.UserSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+/**
+ * REST-контроллер объединенного поиска пользователей по имени и email
+ *
+ * Обрабатывает /api/v1/users/search с параметром q; запрос с параметром name
+ * по-прежнему обслуживает поиск только по имени в UserController
+ */
+@Slf4j
+@Validated
+@RestController
+@RequestMapping("/api/v1/users/search")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "API для управления пользователями")
+public class UserSearchController {
+
+    private final UserSearchService userSearchService;
+
+    @GetMapping(params = "q")
+    @Operation(
+            summary = "Поиск пользователей по имени и email",
+            description = "Ищет одновременно по части имени и по началу email, объединяет результаты "
+                    + "без повторов и сортирует по релевантности. Если один из поисков не уложился "
+                    + "в бюджет времени, возвращаются результаты остальных с partial=true"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Поиск выполнен, возможно частично",
+                    content = @Content(schema = @Schema(implementation = UserSearchResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Пустая или слишком длинная строка поиска",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Ни один из поисков не уложился в бюджет времени",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<UserSearchResult> search(
+            @Parameter(description = "Часть имени или начало email", required = true, example = "john")
+            @RequestParam("q") @NotBlank(message = "Строка поиска не может быть пустой")
+            @Size(max = 100, message = "Строка поиска не может быть длиннее 100 символов") String query) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("GET /api/v1/users/search?q={} - Поиск пользователей по имени и email",
+                    LogMasker.maskEmails(query));
+        }
+        return ResponseEntity.ok(userSearchService.search(query));
+    }
+}
@@ -0,0 +1,47 @@
+package com.aston.controller;
+
+import com.aston.dto.UserStats;
+import com.aston.service.UserStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST-контроллер статистики пользователей
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/users/stats")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "API для управления пользователями")
+public class UserStatsController {
+
+    private final UserStatsService userStatsService;
+
+    @GetMapping
+    @Operation(
+            summary = "Получить статистику пользователей",
+            description = "Возвращает общее число пользователей, распределение по возрасту и по дням создания. "
+                    + "Результат кэшируется на несколько секунд"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Статистика получена",
+                    content = @Content(schema = @Schema(implementation = UserStats.class))
+            )
+    })
+    public ResponseEntity<UserStats> getStats() {
+        log.debug("GET /api/v1/users/stats - Получение статистики пользователей");
+        return ResponseEntity.ok(userStatsService.getStats());
+    }
+}
@@ -0,0 +1,24 @@
+package com.aston.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат массовой операции над пользователями
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат массовой операции")
+public class BulkOperationResult {
+
+    @Schema(description = "Число затронутых пользователей", example = "1500")
+    private long affected;
+
+    @Schema(description = "Время выполнения в миллисекундах", example = "120")
+    private long durationMs;
+}
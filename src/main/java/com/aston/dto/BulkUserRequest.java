@@ -0,0 +1,44 @@
+package com.aston.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO-слой для массовых операций над пользователями
+ *
+ * Пользователи выбираются либо списком ID, либо диапазоном возраста
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Выбор пользователей для массовой операции")
+public class BulkUserRequest {
+
+    @Schema(description = "ID пользователей", example = "[1, 2, 3]")
+    @Size(max = 10000, message = "В одном запросе можно указать не более 10000 ID")
+    private List<Long> ids;
+
+    @Schema(description = "Минимальный возраст включительно", example = "18")
+    @Min(value = 0, message = "Возраст не может быть отрицательным")
+    @Max(value = 150, message = "Возраст не может превышать 150 лет")
+    private Integer minAge;
+
+    @Schema(description = "Максимальный возраст включительно", example = "25")
+    @Min(value = 0, message = "Возраст не может быть отрицательным")
+    @Max(value = 150, message = "Возраст не может превышать 150 лет")
+    private Integer maxAge;
+
+    @Schema(description = "Новый возраст, только для bulk-update", example = "30")
+    @Min(value = 0, message = "Возраст не может быть отрицательным")
+    @Max(value = 150, message = "Возраст не может превышать 150 лет")
+    private Integer age;
+}
@@ -0,0 +1,44 @@
+package com.aston.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Компактное представление пользователя без ссылок HATEOAS
+ *
+ * Отдается при запросе с Accept: application/vnd.users.compact+json
+ * внутренним клиентам, которым ссылки не нужны, а также в бинарных
+ * форматах CBOR и Smile
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"id", "name", "email", "age", "createdAt"})
+public class CompactUser {
+
+    public static final String MEDIA_TYPE = "application/vnd.users.compact+json";
+    public static final String CBOR_MEDIA_TYPE = "application/cbor";
+    public static final String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
+
+    private Long id;
+    private String name;
+    private String email;
+    private Integer age;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    public static CompactUser from(UserResource resource) {
+        return new CompactUser(resource.getId(), resource.getName(), resource.getEmail(),
+                resource.getAge(), resource.getCreatedAt());
+    }
+}
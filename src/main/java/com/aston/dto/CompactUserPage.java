@@ -0,0 +1,25 @@
+package com.aston.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Компактный список пользователей без ссылок HATEOAS
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactUserPage {
+
+    private List<CompactUser> items;
+
+    /**
+     * Курсор следующей страницы или null, если страница последняя или фильтр не задан
+     */
+    private String nextCursor;
+}
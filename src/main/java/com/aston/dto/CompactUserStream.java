@@ -0,0 +1,22 @@
+package com.aston.dto;
+
+import java.util.function.Consumer;
+
+/**
+ * Список пользователей в компактном виде, который пишется в ответ по мере чтения из БД
+ *
+ * Источник вызывается один раз при записи ответа и передает пользователей
+ * по одному; в ответе получается тот же JSON, что и у CompactUserPage без курсора
+ */
+public final class CompactUserStream {
+
+    private final Consumer<Consumer<CompactUser>> source;
+
+    public CompactUserStream(Consumer<Consumer<CompactUser>> source) {
+        this.source = source;
+    }
+
+    public void forEach(Consumer<CompactUser> consumer) {
+        source.accept(consumer);
+    }
+}
@@ -4,8 +4,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.apache.kafka.common.protocol.types.Field;
 
+import java.time.LocalDateTime;
+
+/**
+ * Событие изменения пользователя в топике user-events
+ *
+ * Содержит полное состояние пользователя, чтобы потребители могли
+ * строить локальную копию без обращения к REST API.
+ * Ключ сообщения - ID пользователя, после удаления в топик отправляется tombstone
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,6 +22,7 @@ public class UserEvent {
 
     public enum EventType{
         USER_CREATED,
+        USER_UPDATED,
         USER_DELETED
     }
 
@@ -21,5 +30,12 @@ public class UserEvent {
     private String email;
     private String name;
     private Long userId;
+    private Integer age;
+    private LocalDateTime createdAt;
+
+    /**
+     * Версия записи пользователя, монотонно растет для одного ID
+     */
+    private Long version;
 
 }
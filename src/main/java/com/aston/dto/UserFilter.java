@@ -0,0 +1,72 @@
+package com.aston.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import java.time.LocalDateTime;
+
+/**
+ * Параметры фильтрации, сортировки и постраничного вывода списка пользователей
+ *
+ * Страницы выбираются по курсору (keyset): курсор содержит поле и направление
+ * сортировки, значение поля и ID последней записи предыдущей страницы
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Фильтр списка пользователей")
+public class UserFilter {
+
+    @Schema(description = "Минимальный возраст включительно", example = "18")
+    @Min(value = 0, message = "Возраст не может быть отрицательным")
+    @Max(value = 150, message = "Возраст не может превышать 150 лет")
+    private Integer minAge;
+
+    @Schema(description = "Максимальный возраст включительно", example = "65")
+    @Min(value = 0, message = "Возраст не может быть отрицательным")
+    @Max(value = 150, message = "Возраст не может превышать 150 лет")
+    private Integer maxAge;
+
+    @Schema(description = "Дата создания от, включительно", example = "2026-01-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @Schema(description = "Дата создания до, не включительно", example = "2026-02-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @Schema(description = "Поле сортировки: id, createdAt или age. "
+            + "Пользователи без значения поля сортировки идут в конце списка при любом направлении",
+            example = "createdAt")
+    @Pattern(regexp = "id|createdAt|age", message = "Сортировка возможна по id, createdAt или age")
+    private String sort;
+
+    @Schema(description = "Направление сортировки: asc или desc", example = "desc")
+    @Pattern(regexp = "(?i)asc|desc", message = "Направление сортировки: asc или desc")
+    private String direction;
+
+    @Schema(description = "Размер страницы", example = "50")
+    @Min(value = 1, message = "Размер страницы должен быть не меньше 1")
+    @Max(value = 1000, message = "Размер страницы не может превышать 1000")
+    private Integer limit;
+
+    @Schema(description = "Курсор следующей страницы из ссылки next; "
+            + "действителен только с теми же полем и направлением сортировки")
+    private String cursor;
+
+    /**
+     * @return true если не указан ни один параметр
+     */
+    public boolean isEmpty() {
+        return minAge == null && maxAge == null && createdFrom == null && createdTo == null
+                && sort == null && direction == null && limit == null && cursor == null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.aston.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат импорта пользователей из файла
+ *
+ * Ошибки строк перечисляются до лимита import.max-errors,
+ * счетчики учитывают все строки файла
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат импорта пользователей")
+public class UserImportReport {
+
+    @Schema(description = "Число строк с данными в файле", example = "1000000")
+    private long totalRows;
+
+    @Schema(description = "Число созданных пользователей", example = "999000")
+    private long imported;
+
+    @Schema(description = "Число строк, не прошедших разбор или валидацию", example = "500")
+    private long invalid;
+
+    @Schema(description = "Число повторов email внутри файла", example = "300")
+    private long duplicates;
+
+    @Schema(description = "Число строк с email, который уже есть в БД", example = "200")
+    private long existing;
+
+    @Schema(description = "Время импорта в миллисекундах", example = "21000")
+    private long durationMs;
+
+    @Schema(description = "Ошибки по строкам")
+    private List<RowError> errors;
+
+    /**
+     * Ошибка строки файла
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+
+        @Schema(description = "Номер строки в файле, начиная с 1", example = "42")
+        private long line;
+
+        @Schema(description = "Описание ошибки", example = "email: Некорректный формат email")
+        private String message;
+    }
+}
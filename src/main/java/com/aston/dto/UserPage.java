@@ -0,0 +1,23 @@
+package com.aston.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница списка пользователей
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage {
+
+    private List<UserResource> items;
+
+    /**
+     * Курсор следующей страницы или null, если страница последняя
+     */
+    private String nextCursor;
+}
@@ -1,6 +1,7 @@
 package com.aston.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,4 +32,11 @@ public class UserResource extends RepresentationModel<UserResource> {
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
+
+    /**
+     * Возраст данных в секундах, если ответ собран из локального снимка
+     * при недоступной БД; null для актуальных данных
+     */
+    @JsonIgnore
+    private Long staleAgeSeconds;
 }
\ No newline at end of file
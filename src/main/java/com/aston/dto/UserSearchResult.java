@@ -0,0 +1,33 @@
+package com.aston.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат объединенного поиска пользователей по имени и email
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResult {
+
+    /**
+     * Найденные пользователи, самые релевантные первыми
+     */
+    private List<CompactUser> items;
+
+    /**
+     * true, если часть запросов не уложилась в бюджет времени или завершилась ошибкой
+     */
+    private boolean partial;
+
+    /**
+     * Источники, результаты которых не попали в ответ: name, email
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> unavailable;
+}
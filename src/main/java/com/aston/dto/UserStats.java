@@ -0,0 +1,35 @@
+package com.aston.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Агрегированная статистика пользователей
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Статистика пользователей")
+public class UserStats {
+
+    @Schema(description = "Общее число пользователей", example = "125000")
+    private long total;
+
+    @Schema(description = "Число пользователей по возрастным группам")
+    private Map<String, Long> byAgeBucket;
+
+    @Schema(description = "Число созданных пользователей по дням за последние user-stats.days дней")
+    private Map<String, Long> byCreationDay;
+
+    @Schema(description = "Время расчета статистики", example = "2026-01-01 10:00:00")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime computedAt;
+}
@@ -16,7 +16,10 @@ import java.time.LocalDateTime;
  * Использует JPA анотации для маппинга на таблицу
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_users_age_id", columnList = "age, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,10 +47,11 @@ public class User {
 
     /**
      * Email пользователя
+     * Уникален без учета регистра (индекс по lower(email)), хранится в исходном написании
      */
     @NotBlank(message = "Email не может быть пустым")
     @Email(message = "Некорректный формат email")
-    @Column(name = "email", nullable = false, unique = true, length = 100)
+    @Column(name = "email", nullable = false, length = 100)
     private String email;
 
 
@@ -66,4 +70,12 @@ public class User {
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    /**
+     * Версия записи
+     * Увеличивается при каждом изменении и передается в событиях user-events
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.aston.exception;
+
+/**
+ * Исключение при конфликте ключа идемпотентности: запрос с ключом еще выполняется
+ * или ключ повторно использован с другими данными
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.aston.exception;
+
+/**
+ * Исключение при сбросе нагрузки: БД перегружена и лимит одновременных обращений исчерпан
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.aston.exception;
+
+/**
+ * Исключение при временной недоступности хранилища, когда fallback не может ответить
+ *
+ * В отличие от UserException не означает ошибку в запросе или отсутствие пользователя:
+ * клиент может повторить запрос позже
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,42 @@
+package com.aston.grpc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки gRPC-сервера чтения пользователей
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "grpc.server")
+public class GrpcServerProperties {
+
+    /**
+     * Включить gRPC-сервер
+     */
+    private boolean enabled = true;
+
+    /**
+     * Порт gRPC, отдельный от HTTP-порта REST API
+     */
+    private int port = 9091;
+
+    /**
+     * Максимальный размер входящего сообщения
+     */
+    private DataSize maxInboundMessageSize = DataSize.ofMegabytes(4);
+
+    /**
+     * Размер страницы выборки из БД для потокового ListUsers
+     */
+    private int listPageSize = 500;
+
+    /**
+     * Время на завершение текущих вызовов при остановке
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,76 @@
+package com.aston.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * gRPC-сервер на отдельном порту, запускаемый вместе с контекстом приложения
+ */
+@Slf4j
+public class UserGrpcServer implements SmartLifecycle {
+
+    private final GrpcServerProperties properties;
+    private final BindableService service;
+
+    private volatile Server server;
+
+    public UserGrpcServer(GrpcServerProperties properties, BindableService service) {
+        this.properties = properties;
+        this.service = service;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = NettyServerBuilder.forPort(properties.getPort())
+                    .maxInboundMessageSize((int) properties.getMaxInboundMessageSize().toBytes())
+                    .addService(service)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить gRPC-сервер на порту " + properties.getPort(), e);
+        }
+        log.info("gRPC-сервер запущен: {}", kv("port", server.getPort()));
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        log.info("gRPC-сервер остановлен");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * @return фактический порт; при port = 0 выбирается свободный
+     */
+    public int getPort() {
+        Server current = server;
+        return current == null ? -1 : current.getPort();
+    }
+}
@@ -0,0 +1,208 @@
+package com.aston.grpc;
+
+import com.aston.dto.UserFilter;
+import com.aston.dto.UserPage;
+import com.aston.dto.UserResource;
+import com.aston.exception.ServiceOverloadedException;
+import com.aston.exception.ServiceUnavailableException;
+import com.aston.exception.UserException;
+import com.aston.grpc.proto.BatchGetUsersRequest;
+import com.aston.grpc.proto.BatchGetUsersResponse;
+import com.aston.grpc.proto.GetUserByEmailRequest;
+import com.aston.grpc.proto.GetUserRequest;
+import com.aston.grpc.proto.ListUsersRequest;
+import com.aston.grpc.proto.User;
+import com.aston.grpc.proto.UserServiceGrpc;
+import com.aston.service.UserService;
+import com.google.protobuf.Timestamp;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC-доступ к чтению пользователей для внутренних сервисов
+ *
+ * Вызывает тот же UserService, что и REST-контроллер, поэтому лимиты, bulkhead
+ * и fallback на снимок действуют одинаково; потоковый ListUsers берет лимит списка
+ * один раз на поток, а не на каждую страницу. Ошибки отображаются в статусы gRPC:
+ * пользователь не найден - NOT_FOUND, некорректный запрос - INVALID_ARGUMENT,
+ * перегрузка - RESOURCE_EXHAUSTED или UNAVAILABLE, недоступность БД без снимка - UNAVAILABLE
+ */
+@Slf4j
+public class UserGrpcService extends UserServiceGrpc.UserServiceImplBase {
+
+    private final UserService userService;
+    private final Validator validator;
+    private final int listPageSize;
+
+    public UserGrpcService(UserService userService, Validator validator, int listPageSize) {
+        this.userService = userService;
+        this.validator = validator;
+        this.listPageSize = listPageSize;
+    }
+
+    @Override
+    public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+        try {
+            responseObserver.onNext(toProto(userService.getUserById(request.getId())));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e, Status.NOT_FOUND));
+        }
+    }
+
+    @Override
+    public void getUserByEmail(GetUserByEmailRequest request, StreamObserver<User> responseObserver) {
+        try {
+            responseObserver.onNext(toProto(userService.getUserByEmail(request.getEmail())));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e, Status.NOT_FOUND));
+        }
+    }
+
+    @Override
+    public void batchGetUsers(BatchGetUsersRequest request, StreamObserver<BatchGetUsersResponse> responseObserver) {
+        try {
+            List<UserResource> users = userService.getUsersByIds(request.getIdsList());
+            responseObserver.onNext(BatchGetUsersResponse.newBuilder()
+                    .addAllUsers(users.stream().map(UserGrpcService::toProto).collect(Collectors.toList()))
+                    .build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e, Status.INVALID_ARGUMENT));
+        }
+    }
+
+    @Override
+    public void listUsers(ListUsersRequest request, StreamObserver<User> responseObserver) {
+        UserFilter filter = toFilter(request);
+        Set<ConstraintViolation<UserFilter>> violations = validator.validate(filter);
+        if (!violations.isEmpty()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .collect(Collectors.joining("; ")))
+                    .asRuntimeException());
+            return;
+        }
+
+        ServerCallStreamObserver<User> call = (ServerCallStreamObserver<User>) responseObserver;
+        ListUsersStream stream = new ListUsersStream(filter, call);
+        call.setOnReadyHandler(stream::drain);
+        call.setOnCancelHandler(() -> log.debug("ListUsers отменен клиентом"));
+        stream.drain();
+    }
+
+    /**
+     * Потоковая отдача списка с учетом flow control: следующая страница читается
+     * из БД только когда клиент готов принять сообщения, поэтому медленный клиент
+     * не накапливает весь список в памяти сервера
+     */
+    private final class ListUsersStream {
+
+        private final UserFilter filter;
+        private final ServerCallStreamObserver<User> call;
+        private final Deque<UserResource> buffer = new ArrayDeque<>();
+        private boolean firstPage = true;
+        private boolean lastPage;
+        private boolean done;
+
+        private ListUsersStream(UserFilter filter, ServerCallStreamObserver<User> call) {
+            this.filter = filter;
+            this.call = call;
+        }
+
+        private void drain() {
+            try {
+                while (!done && !call.isCancelled() && call.isReady()) {
+                    if (buffer.isEmpty()) {
+                        if (lastPage) {
+                            done = true;
+                            call.onCompleted();
+                            return;
+                        }
+                        fetchNextPage();
+                        continue;
+                    }
+                    call.onNext(toProto(buffer.poll()));
+                }
+            } catch (RuntimeException e) {
+                done = true;
+                call.onError(toStatus(e, Status.INVALID_ARGUMENT));
+            }
+        }
+
+        private void fetchNextPage() {
+            // лимит списка берется один раз на поток, как за одну страницу REST
+            UserPage page = firstPage ? userService.findUsers(filter) : userService.findUsersPage(filter);
+            firstPage = false;
+            buffer.addAll(page.getItems());
+            filter.setCursor(page.getNextCursor());
+            lastPage = page.getNextCursor() == null;
+        }
+    }
+
+    private UserFilter toFilter(ListUsersRequest request) {
+        return UserFilter.builder()
+                .minAge(request.hasMinAge() ? request.getMinAge() : null)
+                .maxAge(request.hasMaxAge() ? request.getMaxAge() : null)
+                .createdFrom(request.hasCreatedFrom() ? toLocalDateTime(request.getCreatedFrom()) : null)
+                .createdTo(request.hasCreatedTo() ? toLocalDateTime(request.getCreatedTo()) : null)
+                .sort(request.getSort().isEmpty() ? null : request.getSort())
+                .direction(request.getDirection().isEmpty() ? null : request.getDirection())
+                .limit(request.getPageSize() > 0 ? request.getPageSize() : listPageSize)
+                .build();
+    }
+
+    static User toProto(UserResource resource) {
+        User.Builder user = User.newBuilder()
+                .setId(resource.getId())
+                .setName(resource.getName())
+                .setEmail(resource.getEmail());
+        if (resource.getAge() != null) {
+            user.setAge(resource.getAge());
+        }
+        if (resource.getCreatedAt() != null) {
+            user.setCreatedAt(Timestamp.newBuilder()
+                    .setSeconds(resource.getCreatedAt().toEpochSecond(ZoneOffset.UTC))
+                    .setNanos(resource.getCreatedAt().getNano()));
+        }
+        return user.build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC);
+    }
+
+    /**
+     * @param businessStatus статус для UserException: зависит от вызова
+     */
+    private static StatusRuntimeException toStatus(RuntimeException e, Status businessStatus) {
+        if (e instanceof UserException) {
+            return businessStatus.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof RequestNotPermitted || e instanceof BulkheadFullException) {
+            return Status.RESOURCE_EXHAUSTED.withDescription("Слишком много запросов").asRuntimeException();
+        }
+        if (e instanceof ServiceOverloadedException || e instanceof ServiceUnavailableException) {
+            return Status.UNAVAILABLE.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("Ошибка обработки gRPC-вызова", e);
+        return Status.INTERNAL.withDescription("Внутренняя ошибка сервера").asRuntimeException();
+    }
+}
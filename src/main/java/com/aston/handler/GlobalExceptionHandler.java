@@ -1,10 +1,20 @@
 package com.aston.handler;
 
 import com.aston.controller.ErrorResponse;
+import com.aston.exception.IdempotencyConflictException;
+import com.aston.exception.ServiceOverloadedException;
+import com.aston.exception.ServiceUnavailableException;
 import com.aston.exception.UserException;
+import com.aston.logging.LogMasker;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -35,7 +45,9 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(UserException.class)
     public ResponseEntity<ErrorResponse> handleUserException(UserException ex, HttpServletRequest request) {
-        log.warn("UserException: {}", ex.getMessage());
+        if (log.isWarnEnabled()) {
+            log.warn("UserException: {}", LogMasker.maskEmails(ex.getMessage()));
+        }
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -67,15 +79,141 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Обработка ошибок валидации @Valid
+     * Обработка конфликтов ключа идемпотентности
+     *
+     * @param ex исключение IdempotencyConflictException
+     * @param request HTTP запрос
+     * @return HTTP 409 Conflict с описанием ошибки
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflict(
+            IdempotencyConflictException ex, HttpServletRequest request) {
+
+        log.warn("IdempotencyConflictException: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Обработка отказов rate limiter и bulkhead
+     *
+     * @param ex исключение RequestNotPermitted или BulkheadFullException
+     * @param request HTTP запрос
+     * @return HTTP 429 Too Many Requests с заголовком Retry-After
+     */
+    @ExceptionHandler({RequestNotPermitted.class, BulkheadFullException.class})
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(
+            RuntimeException ex, HttpServletRequest request) {
+
+        log.warn("Too many requests: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .message("Слишком много запросов. Пожалуйста, повторите попытку позже.")
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Обработка тела запроса в неподдерживаемом формате
+     *
+     * @param ex исключение HttpMediaTypeNotSupportedException
+     * @param request HTTP запрос
+     * @return HTTP 415 Unsupported Media Type
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ErrorResponse> handleUnsupportedMediaType(
+            HttpMediaTypeNotSupportedException ex, HttpServletRequest request) {
+
+        log.warn("Unsupported media type: {}", ex.getContentType());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value())
+                .error(HttpStatus.UNSUPPORTED_MEDIA_TYPE.getReasonPhrase())
+                .message("Формат тела запроса не поддерживается: " + ex.getContentType())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    /**
+     * Обработка сброса нагрузки адаптивным лимитом обращений к БД
+     *
+     * @param ex исключение ServiceOverloadedException
+     * @param request HTTP запрос
+     * @return HTTP 503 Service Unavailable с заголовком Retry-After
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(
+            ServiceOverloadedException ex, HttpServletRequest request) {
+
+        log.warn("Service overloaded: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Обработка недоступности хранилища, когда fallback не может ответить
+     *
+     * @param ex исключение ServiceUnavailableException
+     * @param request HTTP запрос
+     * @return HTTP 503 Service Unavailable
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(
+            ServiceUnavailableException ex, HttpServletRequest request) {
+
+        log.warn("Service unavailable: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    /**
+     * Обработка ошибок валидации @Valid тела запроса и параметров запроса
      *
      * @param ex исключение валидации
      * @param request HTTP запрос
      * @return HTTP 400 Bad Request с деталями ошибок валидации
      */
-    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ExceptionHandler({MethodArgumentNotValidException.class, BindException.class})
     public ResponseEntity<ErrorResponse> handleValidationExceptions(
-            MethodArgumentNotValidException ex, HttpServletRequest request) {
+            BindException ex, HttpServletRequest request) {
 
         log.warn("Validation exception: {}", ex.getMessage());
 
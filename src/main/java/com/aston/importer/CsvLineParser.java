@@ -0,0 +1,60 @@
+package com.aston.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбор строки CSV (RFC 4180) без переносов строк внутри значений
+ */
+final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * @param line строка файла
+     * @return значения колонок, пустое значение без кавычек возвращается как null
+     * @throws IllegalArgumentException если кавычки не закрыты
+     */
+    static List<String> parse(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                values.add(value(current, wasQuoted));
+                current.setLength(0);
+                wasQuoted = false;
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка");
+        }
+        values.add(value(current, wasQuoted));
+        return values;
+    }
+
+    private static String value(StringBuilder current, boolean wasQuoted) {
+        String value = wasQuoted ? current.toString() : current.toString().trim();
+        return value.isEmpty() && !wasQuoted ? null : value;
+    }
+}
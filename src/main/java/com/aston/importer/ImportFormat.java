@@ -0,0 +1,43 @@
+package com.aston.importer;
+
+import com.aston.exception.UserException;
+
+import java.util.Locale;
+
+/**
+ * Формат файла импорта пользователей
+ */
+public enum ImportFormat {
+
+    /**
+     * CSV с заголовком, колонки name, email, age в любом порядке
+     */
+    CSV,
+
+    /**
+     * Один JSON-объект UserRequest на строку
+     */
+    JSONL;
+
+    /**
+     * Определить формат по явному параметру или расширению файла
+     */
+    public static ImportFormat resolve(String format, String filename) {
+        String value = format;
+        if (value == null || value.isBlank()) {
+            if (filename == null || filename.lastIndexOf('.') < 0) {
+                throw new UserException("Не удалось определить формат файла, укажите параметр format");
+            }
+            value = filename.substring(filename.lastIndexOf('.') + 1);
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "csv":
+                return CSV;
+            case "jsonl":
+            case "ndjson":
+                return JSONL;
+            default:
+                throw new UserException("Неподдерживаемый формат файла: " + value);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.aston.importer;
+
+import com.aston.dto.UserImportReport;
+import com.aston.dto.UserRequest;
+import com.aston.entity.User;
+import com.aston.exception.UserException;
+import com.aston.service.KafkaEventService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Массовый импорт пользователей из CSV или JSONL
+ *
+ * Email сравниваются без учета регистра, как и уникальный индекс по lower(email).
+ * Файл читается потоком по частям: строки части разбираются и валидируются
+ * параллельно, валидные строки сразу передаются в Postgres через COPY во временную
+ * таблицу. Повторы email и уже существующие email определяются запросами к временной
+ * таблице, после чего пользователи добавляются одним INSERT ... SELECT.
+ * Весь импорт выполняется в одной транзакции, события USER_CREATED отправляются
+ * пачками только после ее коммита
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE users_import ("
+            + "line BIGINT NOT NULL, name VARCHAR(100), email VARCHAR(100), age INTEGER) ON COMMIT DROP";
+    private static final String COPY_STAGING = "COPY users_import (line, name, email, age) FROM STDIN WITH (FORMAT csv)";
+    private static final String COUNT_DUPLICATES = "SELECT count(*) - count(DISTINCT lower(email)) FROM users_import";
+    private static final String SELECT_DUPLICATES = "SELECT line, email FROM ("
+            + "SELECT line, email, row_number() OVER (PARTITION BY lower(email) ORDER BY line) AS rn FROM users_import) d "
+            + "WHERE rn > 1 ORDER BY line LIMIT ?";
+    private static final String SELECT_EXISTING = "SELECT min(i.line) AS line FROM users_import i "
+            + "WHERE EXISTS (SELECT 1 FROM users u WHERE lower(u.email) = lower(i.email)) "
+            + "GROUP BY lower(i.email) ORDER BY line LIMIT ?";
+    private static final String MERGE = "INSERT INTO users (name, email, age, created_at, version) "
+            + "SELECT DISTINCT ON (lower(email)) name, email, age, LOCALTIMESTAMP, 0 FROM users_import "
+            + "ORDER BY lower(email), line "
+            + "ON CONFLICT ((lower(email))) DO NOTHING "
+            + "RETURNING id, name, email, age, created_at, version";
+
+    private final DataSource dataSource;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final KafkaEventService kafkaEventService;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public UserImportService(DataSource dataSource,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             KafkaEventService kafkaEventService,
+                             @Value("${import.chunk-size:10000}") int chunkSize,
+                             @Value("${import.max-errors:1000}") int maxErrors) {
+        this.dataSource = dataSource;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.kafkaEventService = kafkaEventService;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Импортировать пользователей из файла
+     *
+     * @param input содержимое файла в UTF-8
+     * @param format формат файла
+     * @return счетчики и ошибки по строкам
+     * @throws UserException если файл не удалось прочитать или заголовок CSV некорректен
+     */
+    @Bulkhead(name = "userImport")
+    public UserImportReport importUsers(InputStream input, ImportFormat format) {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        List<User> created;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING);
+                }
+                copyToStaging(connection, reader, format, progress);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ANALYZE users_import");
+                }
+                collectDuplicates(connection, progress);
+                collectExisting(connection, progress);
+                created = merge(connection, progress);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UserException("Не удалось прочитать файл импорта: " + e.getMessage());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Ошибка загрузки пользователей в БД", e);
+        }
+        publishCreated(created);
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        progress.existing = progress.valid - progress.duplicates - progress.imported;
+        log.info("Импорт пользователей завершен: {}, {}, {}, {}",
+                kv("rows", progress.total), kv("imported", progress.imported),
+                kv("invalid", progress.invalid), kv("durationMs", durationMs));
+
+        return UserImportReport.builder()
+                .totalRows(progress.total)
+                .imported(progress.imported)
+                .invalid(progress.invalid)
+                .duplicates(progress.duplicates)
+                .existing(progress.existing)
+                .durationMs(durationMs)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private void copyToStaging(Connection connection, BufferedReader reader, ImportFormat format,
+                               Progress progress) throws SQLException, IOException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            long lineNumber = 0;
+            CsvColumns columns = null;
+            List<RawLine> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && columns == null) {
+                    columns = CsvColumns.fromHeader(line);
+                    continue;
+                }
+                chunk.add(new RawLine(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(copyIn, chunk, format, columns, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            writeChunk(copyIn, chunk, format, columns, progress);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void writeChunk(CopyIn copyIn, List<RawLine> chunk, ImportFormat format, CsvColumns columns,
+                            Progress progress) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // разбор и валидация не зависят друг от друга, поэтому часть обрабатывается параллельно
+        List<ParsedRow> rows = chunk.parallelStream()
+                .map(raw -> parse(raw, format, columns))
+                .collect(Collectors.toList());
+
+        StringBuilder csv = new StringBuilder(chunk.size() * 64);
+        for (ParsedRow row : rows) {
+            progress.total++;
+            if (row.error != null) {
+                progress.invalid++;
+                progress.addError(row.line, row.error, maxErrors);
+                continue;
+            }
+            progress.valid++;
+            csv.append(row.line).append(',');
+            appendQuoted(csv, row.request.getName()).append(',');
+            appendQuoted(csv, row.request.getEmail()).append(',');
+            if (row.request.getAge() != null) {
+                csv.append(row.request.getAge());
+            }
+            csv.append('\n');
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+    }
+
+    private ParsedRow parse(RawLine raw, ImportFormat format, CsvColumns columns) {
+        UserRequest request;
+        try {
+            request = format == ImportFormat.CSV
+                    ? columns.toRequest(CsvLineParser.parse(raw.text))
+                    : objectMapper.readValue(raw.text, UserRequest.class);
+        } catch (JsonProcessingException e) {
+            return ParsedRow.error(raw.number, "Некорректный JSON");
+        } catch (IllegalArgumentException e) {
+            return ParsedRow.error(raw.number, e.getMessage());
+        }
+        if (request == null) {
+            // строка JSONL "null"
+            return ParsedRow.error(raw.number, "Пустая запись");
+        }
+
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return ParsedRow.error(raw.number, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new ParsedRow(raw.number, request, null);
+    }
+
+    private void collectDuplicates(Connection connection, Progress progress) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(COUNT_DUPLICATES)) {
+            resultSet.next();
+            progress.duplicates = resultSet.getLong(1);
+        }
+        collectErrors(connection, SELECT_DUPLICATES, "email повторяется в файле", progress);
+    }
+
+    private void collectExisting(Connection connection, Progress progress) throws SQLException {
+        collectErrors(connection, SELECT_EXISTING, "пользователь с таким email уже существует", progress);
+    }
+
+    private void collectErrors(Connection connection, String sql, String message,
+                               Progress progress) throws SQLException {
+        int remaining = maxErrors - progress.errors.size();
+        if (remaining <= 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, remaining);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    progress.addError(resultSet.getLong("line"), message, maxErrors);
+                }
+            }
+        }
+    }
+
+    /**
+     * Перенести новых пользователей в users
+     *
+     * @return созданные пользователи; события о них отправляются только после коммита
+     */
+    private List<User> merge(Connection connection, Progress progress) throws SQLException {
+        List<User> created = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(MERGE)) {
+            // строки RETURNING читаются частями, в памяти остаются только данные для событий
+            statement.setFetchSize(chunkSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    progress.imported++;
+                    created.add(toUser(resultSet));
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Отправить события о созданных пользователях пачками по chunk-size
+     */
+    private void publishCreated(List<User> created) {
+        for (int from = 0; from < created.size(); from += chunkSize) {
+            kafkaEventService.sendUserCreatedEvents(created.subList(from, Math.min(from + chunkSize, created.size())));
+        }
+    }
+
+    private static User toUser(ResultSet resultSet) throws SQLException {
+        Timestamp createdAt = resultSet.getTimestamp("created_at");
+        return User.builder()
+                .id(resultSet.getLong("id"))
+                .name(resultSet.getString("name"))
+                .email(resultSet.getString("email"))
+                .age((Integer) resultSet.getObject("age"))
+                .createdAt(createdAt == null ? null : createdAt.toLocalDateTime())
+                .version(resultSet.getLong("version"))
+                .build();
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Индексы колонок CSV по заголовку
+     */
+    private static final class CsvColumns {
+
+        private final int name;
+        private final int email;
+        private final int age;
+
+        private CsvColumns(int name, int email, int age) {
+            this.name = name;
+            this.email = email;
+            this.age = age;
+        }
+
+        static CsvColumns fromHeader(String header) {
+            List<String> columns = CsvLineParser.parse(header).stream()
+                    .map(column -> column == null ? "" : column.trim().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toList());
+            int name = columns.indexOf("name");
+            int email = columns.indexOf("email");
+            if (name < 0 || email < 0) {
+                throw new UserException("Заголовок CSV должен содержать колонки name и email");
+            }
+            return new CsvColumns(name, email, columns.indexOf("age"));
+        }
+
+        UserRequest toRequest(List<String> values) {
+            String ageValue = value(values, age);
+            Integer parsedAge;
+            try {
+                parsedAge = ageValue == null ? null : Integer.valueOf(ageValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("age: должно быть целым числом");
+            }
+            return UserRequest.builder()
+                    .name(value(values, name))
+                    .email(value(values, email))
+                    .age(parsedAge)
+                    .build();
+        }
+
+        private static String value(List<String> values, int index) {
+            return index < 0 || index >= values.size() ? null : values.get(index);
+        }
+    }
+
+    private static final class RawLine {
+
+        private final long number;
+        private final String text;
+
+        private RawLine(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    private static final class ParsedRow {
+
+        private final long line;
+        private final UserRequest request;
+        private final String error;
+
+        private ParsedRow(long line, UserRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+
+        static ParsedRow error(long line, String error) {
+            return new ParsedRow(line, null, error);
+        }
+    }
+
+    private static final class Progress {
+
+        private final List<UserImportReport.RowError> errors = new ArrayList<>();
+        private long total;
+        private long valid;
+        private long invalid;
+        private long duplicates;
+        private long existing;
+        private long imported;
+
+        void addError(long line, String message, int maxErrors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportReport.RowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.aston.logging;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Маскирование персональных данных перед записью в лог
+ *
+ * Маскирование выполняется лениво: объект-обертка вычисляет строку
+ * только при фактическом форматировании события логгером
+ */
+public final class LogMasker {
+
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("([A-Za-z0-9._%+-])[A-Za-z0-9._%+-]*(@[A-Za-z0-9.-]+)");
+
+    private LogMasker() {
+    }
+
+    /**
+     * Обернуть email для ленивого маскирования
+     *
+     * @param email исходный email
+     * @return объект, чей toString возвращает замаскированный email
+     */
+    public static Object email(String email) {
+        return new MaskedEmail(email);
+    }
+
+    /**
+     * Замаскировать email: сохраняется первый символ локальной части и домен
+     *
+     * @param email исходный email
+     * @return замаскированный email, например j***@example.com
+     */
+    public static String maskEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    /**
+     * Замаскировать все email внутри произвольного текста, например сообщения исключения
+     *
+     * @param text исходный текст
+     * @return текст с замаскированными email
+     */
+    public static String maskEmails(String text) {
+        if (text == null || text.indexOf('@') < 0) {
+            return text;
+        }
+        Matcher matcher = EMAIL_PATTERN.matcher(text);
+        return matcher.replaceAll("$1***$2");
+    }
+
+    private static final class MaskedEmail {
+
+        private final String email;
+
+        private MaskedEmail(String email) {
+            this.email = email;
+        }
+
+        @JsonValue
+        @Override
+        public String toString() {
+            return maskEmail(email);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.aston.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сэмплер высокочастотных info-логов
+ *
+ * Решает, нужно ли писать событие операции, до форматирования аргументов,
+ * поэтому пропущенные события не создают лишних объектов
+ */
+@Component
+@RequiredArgsConstructor
+public class LogSampler {
+
+    private final LogSamplingProperties properties;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Проверить, нужно ли логировать очередное событие операции
+     *
+     * @param operation имя операции, например user.create
+     * @return true если событие попадает в выборку
+     */
+    public boolean isSampled(String operation) {
+        int rate = properties.getRates().getOrDefault(operation, properties.getDefaultRate());
+        if (rate <= 1) {
+            return true;
+        }
+        return counters.computeIfAbsent(operation, key -> new AtomicLong())
+                .getAndIncrement() % rate == 0;
+    }
+
+    /**
+     * Проверить уровень INFO у логгера и выборку операции
+     *
+     * @param logger логгер вызывающего класса
+     * @param operation имя операции
+     * @return true если событие нужно записать
+     */
+    public boolean isInfoSampled(Logger logger, String operation) {
+        return logger.isInfoEnabled() && isSampled(operation);
+    }
+}
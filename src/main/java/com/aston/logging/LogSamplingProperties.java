@@ -0,0 +1,29 @@
+package com.aston.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки сэмплирования info-логов на горячем пути
+ *
+ * Значение rate = N означает, что в лог попадает каждое N-е событие операции
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "logging.sampling")
+public class LogSamplingProperties {
+
+    /**
+     * Частота сэмплирования для операций без явной настройки
+     */
+    private int defaultRate = 1;
+
+    /**
+     * Частота сэмплирования по имени операции
+     */
+    private Map<String, Integer> rates = new HashMap<>();
+}
@@ -0,0 +1,63 @@
+package com.aston.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Фильтр подсчета SQL-запросов на один HTTP-запрос
+ *
+ * Предупреждает, если запрос выполнил больше запросов к БД, чем допускает порог,
+ * или выполнил один и тот же SQL не меньше repeated-statement-threshold раз за запрос,
+ * не обязательно подряд (признак N+1)
+ */
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final int maxQueriesPerRequest;
+    private final int repeatedStatementThreshold;
+
+    public QueryCountFilter(int maxQueriesPerRequest, int repeatedStatementThreshold) {
+        this.maxQueriesPerRequest = maxQueriesPerRequest;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCountHolder.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStats stats = QueryCountHolder.stop();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats) {
+        if (stats == null || !log.isWarnEnabled()) {
+            return;
+        }
+        if (stats.getTotal() > maxQueriesPerRequest) {
+            log.warn("Превышено число SQL-запросов на HTTP-запрос: {}, {}, {}, {}",
+                    kv("method", request.getMethod()),
+                    kv("path", request.getRequestURI()),
+                    kv("queries", stats.getTotal()),
+                    kv("limit", maxQueriesPerRequest));
+        }
+        if (stats.getMaxRepeats() >= repeatedStatementThreshold) {
+            log.warn("Возможная проблема N+1: {}, {}, {}, {}",
+                    kv("method", request.getMethod()),
+                    kv("path", request.getRequestURI()),
+                    kv("repeats", stats.getMaxRepeats()),
+                    kv("sql", stats.getMostRepeatedStatement()));
+        }
+    }
+}
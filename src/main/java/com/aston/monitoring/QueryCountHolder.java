@@ -0,0 +1,38 @@
+package com.aston.monitoring;
+
+/**
+ * Привязка статистики SQL-запросов к текущему потоку
+ *
+ * Подсчет ведется только между вызовами {@link #start()} и {@link #stop()},
+ * запросы вне этого окна (фоновые задачи, старт приложения) не учитываются
+ */
+public final class QueryCountHolder {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryCountHolder() {
+    }
+
+    /**
+     * Начать подсчет запросов в текущем потоке
+     */
+    public static void start() {
+        CURRENT.set(new QueryStats());
+    }
+
+    /**
+     * Текущая статистика или null, если подсчет не запущен
+     */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Завершить подсчет и вернуть накопленную статистику
+     */
+    public static QueryStats stop() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+}
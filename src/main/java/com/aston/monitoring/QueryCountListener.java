@@ -0,0 +1,52 @@
+package com.aston.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Слушатель datasource-proxy: учитывает выполненные запросы и фиксирует медленные
+ *
+ * В лог попадает только текст SQL с плейсхолдерами, значения параметров
+ * не выводятся, чтобы не раскрывать персональные данные
+ */
+@Slf4j
+public class QueryCountListener implements QueryExecutionListener {
+
+    private final long slowThresholdMs;
+
+    public QueryCountListener(long slowThresholdMs) {
+        this.slowThresholdMs = slowThresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // учитываем запросы только после выполнения
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+
+        QueryStats stats = QueryCountHolder.current();
+        if (stats != null) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                stats.record(queryInfo.getQuery(), elapsedMs);
+            }
+        }
+
+        if (elapsedMs >= slowThresholdMs && log.isWarnEnabled()) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Медленный SQL-запрос: {}, {}, {}",
+                        kv("elapsedMs", elapsedMs),
+                        kv("batchSize", execInfo.getBatchSize()),
+                        kv("sql", queryInfo.getQuery()));
+            }
+        }
+    }
+}
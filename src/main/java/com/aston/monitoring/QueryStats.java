@@ -0,0 +1,129 @@
+package com.aston.monitoring;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Статистика SQL-запросов в рамках одной единицы работы (HTTP-запроса или теста)
+ *
+ * Экземпляр привязан к потоку через {@link QueryCountHolder}, поэтому не синхронизируется
+ */
+public class QueryStats {
+
+    private int select;
+    private int insert;
+    private int update;
+    private int delete;
+    private int other;
+    private long totalTimeMs;
+
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    void record(String sql, long elapsedMs) {
+        switch (QueryType.of(sql)) {
+            case SELECT:
+                select++;
+                break;
+            case INSERT:
+                insert++;
+                break;
+            case UPDATE:
+                update++;
+                break;
+            case DELETE:
+                delete++;
+                break;
+            default:
+                other++;
+        }
+        totalTimeMs += elapsedMs;
+        statementCounts.merge(sql, 1, Integer::sum);
+    }
+
+    public int getSelect() {
+        return select;
+    }
+
+    public int getInsert() {
+        return insert;
+    }
+
+    public int getUpdate() {
+        return update;
+    }
+
+    public int getDelete() {
+        return delete;
+    }
+
+    public int getOther() {
+        return other;
+    }
+
+    public int getTotal() {
+        return select + insert + update + delete + other;
+    }
+
+    public long getTotalTimeMs() {
+        return totalTimeMs;
+    }
+
+    /**
+     * Максимальное число повторов одного и того же SQL (признак N+1)
+     */
+    public int getMaxRepeats() {
+        int max = 0;
+        for (int count : statementCounts.values()) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * SQL, повторенный наибольшее число раз
+     */
+    public String getMostRepeatedStatement() {
+        String result = null;
+        int max = 0;
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (entry.getValue() > max) {
+                max = entry.getValue();
+                result = entry.getKey();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStats{total=" + getTotal() + ", select=" + select + ", insert=" + insert
+                + ", update=" + update + ", delete=" + delete + ", other=" + other
+                + ", timeMs=" + totalTimeMs + "}";
+    }
+
+    enum QueryType {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        static QueryType of(String sql) {
+            String trimmed = sql.stripLeading();
+            int end = 0;
+            while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+                end++;
+            }
+            switch (trimmed.substring(0, end).toLowerCase(Locale.ROOT)) {
+                case "select":
+                case "with":
+                    return SELECT;
+                case "insert":
+                    return INSERT;
+                case "update":
+                    return UPDATE;
+                case "delete":
+                    return DELETE;
+                default:
+                    return OTHER;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.aston.projection;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Компактная неизменяемая запись пользователя в локальной реплике
+ *
+ * Хранит примитивы вместо оберток и дату создания в секундах эпохи,
+ * чтобы одна запись занимала минимум памяти
+ */
+public final class ReplicaUser {
+
+    static final int NO_AGE = -1;
+    static final long NO_CREATED_AT = Long.MIN_VALUE;
+    static final long NO_VERSION = -1;
+
+    private final long id;
+    private final String name;
+    private final String email;
+    private final int age;
+    private final long createdAtEpochSecond;
+    private final long version;
+
+    ReplicaUser(long id, String name, String email, int age, long createdAtEpochSecond, long version) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.age = age;
+        this.createdAtEpochSecond = createdAtEpochSecond;
+        this.version = version;
+    }
+
+    static ReplicaUser of(long id, String name, String email, Integer age, LocalDateTime createdAt, Long version) {
+        return new ReplicaUser(id, name, email,
+                age == null ? NO_AGE : age,
+                createdAt == null ? NO_CREATED_AT : createdAt.toEpochSecond(ZoneOffset.UTC),
+                version == null ? NO_VERSION : version);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getAge() {
+        return age == NO_AGE ? null : age;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAtEpochSecond == NO_CREATED_AT
+                ? null
+                : LocalDateTime.ofEpochSecond(createdAtEpochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    int rawAge() {
+        return age;
+    }
+
+    long rawCreatedAt() {
+        return createdAtEpochSecond;
+    }
+}
@@ -0,0 +1,52 @@
+package com.aston.projection;
+
+import com.aston.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.util.Map;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Потребитель топика user-events, обновляющий локальную реплику
+ *
+ * При назначении партиций чтение продолжается со смещения,
+ * сохраненного в загруженном снимке
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserProjectionListener implements ConsumerSeekAware {
+
+    private final UserReplica userReplica;
+
+    @KafkaListener(
+            id = "userProjection",
+            topics = "${kafka.topics.user-events}",
+            containerFactory = "userProjectionListenerContainerFactory")
+    public void onEvent(ConsumerRecord<String, UserEvent> record) {
+        if (record.value() != null) {
+            userReplica.apply(record.value());
+        } else {
+            userReplica.applyTombstone(record.key());
+        }
+        userReplica.markProcessed(record.partition(), record.offset());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<Integer, Long> offsets = userReplica.offsets();
+        assignments.keySet().forEach(partition -> {
+            Long processed = offsets.get(partition.partition());
+            if (processed != null) {
+                callback.seek(partition.topic(), partition.partition(), processed + 1);
+                log.info("Реплика пользователей продолжает чтение: {}, {}",
+                        kv("partition", partition.partition()), kv("offset", processed + 1));
+            }
+        });
+    }
+}
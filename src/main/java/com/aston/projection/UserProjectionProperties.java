@@ -0,0 +1,34 @@
+package com.aston.projection;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки локальной реплики пользователей
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-projection")
+public class UserProjectionProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Файл снимка реплики. Если не задан, реплика строится заново с начала топика
+     */
+    private String snapshotPath;
+
+    /**
+     * Период записи снимка на диск
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(1);
+
+    /**
+     * Группа потребителя. Каждый экземпляр должен читать все партиции,
+     * поэтому по умолчанию группа уникальна для экземпляра
+     */
+    private String groupId;
+}
@@ -0,0 +1,116 @@
+package com.aston.projection;
+
+import com.aston.dto.UserEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Локальная копия пользователей, построенная из топика user-events
+ *
+ * Поиск по ID и email выполняется в памяти без сетевых вызовов,
+ * email сравнивается без учета регистра, как и в БД.
+ * События с версией не новее уже примененной пропускаются, поэтому
+ * повторное чтение топика после загрузки снимка не откатывает данные.
+ * Вместе с данными хранятся смещения обработанных сообщений по партициям,
+ * чтобы после загрузки снимка продолжить чтение топика с нужного места
+ */
+public class UserReplica {
+
+    private final Map<Long, ReplicaUser> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> offsets = new ConcurrentHashMap<>();
+
+    /**
+     * Применить событие к копии
+     *
+     * @param event событие user-events
+     */
+    public void apply(UserEvent event) {
+        if (event.getUserId() == null || event.getEventType() == null) {
+            return;
+        }
+        ReplicaUser current = users.get(event.getUserId());
+        if (current != null && event.getVersion() != null && event.getVersion() <= current.getVersion()) {
+            return;
+        }
+        if (event.getEventType() == UserEvent.EventType.USER_DELETED) {
+            remove(event.getUserId());
+        } else {
+            put(ReplicaUser.of(event.getUserId(), event.getName(), event.getEmail(),
+                    event.getAge(), event.getCreatedAt(), event.getVersion()));
+        }
+    }
+
+    /**
+     * Применить tombstone из компактифицированного топика
+     *
+     * @param key ключ сообщения - ID пользователя
+     */
+    public void applyTombstone(String key) {
+        if (key == null) {
+            return;
+        }
+        try {
+            remove(Long.parseLong(key));
+        } catch (NumberFormatException e) {
+            // сообщения без числового ключа отправлялись до перехода на ключи по ID
+        }
+    }
+
+    /**
+     * Запомнить смещение последнего обработанного сообщения партиции
+     */
+    public void markProcessed(int partition, long offset) {
+        offsets.merge(partition, offset, Math::max);
+    }
+
+    public Optional<ReplicaUser> findById(long id) {
+        return Optional.ofNullable(users.get(id));
+    }
+
+    public Optional<ReplicaUser> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Long id = idsByEmail.get(emailKey(email));
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    Collection<ReplicaUser> users() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    Map<Integer, Long> offsets() {
+        return Collections.unmodifiableMap(offsets);
+    }
+
+    void put(ReplicaUser user) {
+        ReplicaUser previous = users.put(user.getId(), user);
+        if (previous != null && previous.getEmail() != null && !previous.getEmail().equals(user.getEmail())) {
+            idsByEmail.remove(emailKey(previous.getEmail()), previous.getId());
+        }
+        if (user.getEmail() != null) {
+            idsByEmail.put(emailKey(user.getEmail()), user.getId());
+        }
+    }
+
+    void remove(long id) {
+        ReplicaUser previous = users.remove(id);
+        if (previous != null && previous.getEmail() != null) {
+            idsByEmail.remove(emailKey(previous.getEmail()), previous.getId());
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
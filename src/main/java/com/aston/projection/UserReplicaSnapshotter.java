@@ -0,0 +1,152 @@
+package com.aston.projection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Периодическая запись реплики пользователей на диск и загрузка при старте
+ *
+ * Снимок пишется во временный файл и атомарно заменяет предыдущий.
+ * Смещения фиксируются до копирования записей: записи в снимке могут быть
+ * новее смещений, и повторное чтение этих событий после загрузки безопасно
+ */
+@Slf4j
+public class UserReplicaSnapshotter {
+
+    private static final int MAGIC = 0x55535231;
+    private static final int FORMAT_VERSION = 2;
+
+    private final UserReplica userReplica;
+    private final Path path;
+    private final Duration interval;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-replica-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UserReplicaSnapshotter(UserReplica userReplica, Path path, Duration interval) {
+        this.userReplica = userReplica;
+        this.path = path;
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (Files.exists(path)) {
+            try {
+                load();
+                log.info("Снимок реплики пользователей загружен: {}, {}", kv("path", path), kv("users", userReplica.size()));
+            } catch (IOException e) {
+                log.warn("Не удалось загрузить снимок реплики, реплика будет построена с начала топика", e);
+            }
+        }
+        long periodMillis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::saveQuietly, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        saveQuietly();
+    }
+
+    /**
+     * Записать снимок реплики
+     */
+    public void save() throws IOException {
+        Map<Integer, Long> offsets = new HashMap<>(userReplica.offsets());
+        List<ReplicaUser> users = new ArrayList<>(userReplica.users());
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(offsets.size());
+            for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.writeInt(users.size());
+            for (ReplicaUser user : users) {
+                out.writeLong(user.getId());
+                writeNullable(out, user.getName());
+                writeNullable(out, user.getEmail());
+                out.writeInt(user.rawAge());
+                out.writeLong(user.rawCreatedAt());
+                out.writeLong(user.getVersion());
+            }
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Загрузить снимок в реплику
+     */
+    public void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Неизвестный формат снимка реплики: " + path);
+            }
+            int offsetCount = in.readInt();
+            for (int i = 0; i < offsetCount; i++) {
+                userReplica.markProcessed(in.readInt(), in.readLong());
+            }
+            int userCount = in.readInt();
+            for (int i = 0; i < userCount; i++) {
+                userReplica.put(new ReplicaUser(in.readLong(), readNullable(in), readNullable(in),
+                        in.readInt(), in.readLong(), in.readLong()));
+            }
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+            log.debug("Снимок реплики пользователей записан: {}", kv("users", userReplica.size()));
+        } catch (IOException e) {
+            log.warn("Не удалось записать снимок реплики пользователей", e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.aston.repository;
+
+import com.aston.dto.CompactUser;
+import com.aston.entity.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Выборка страницы пользователей без запроса общего числа записей
+ */
+public interface UserKeysetRepository {
+
+    /**
+     * @param specification условия выборки
+     * @param sort сортировка
+     * @param limit максимальное число записей
+     * @return записи страницы
+     */
+    List<User> findPage(Specification<User> specification, Sort sort, int limit);
+
+    /**
+     * Страница в компактном виде: строки выборки сразу становятся CompactUser,
+     * сущности не создаются и не попадают в контекст персистентности
+     *
+     * @param specification условия выборки
+     * @param sort сортировка
+     * @param limit максимальное число записей
+     * @return записи страницы
+     */
+    List<CompactUser> findCompactPage(Specification<User> specification, Sort sort, int limit);
+}
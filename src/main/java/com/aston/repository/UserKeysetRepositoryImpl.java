@@ -0,0 +1,61 @@
+package com.aston.repository;
+
+import com.aston.dto.CompactUser;
+import com.aston.entity.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Реализация выборки страницы через Criteria API
+ *
+ * В отличие от findAll(Specification, Pageable) не выполняет count-запрос,
+ * который при keyset-пагинации не нужен и сканирует всю выборку
+ */
+public class UserKeysetRepositoryImpl implements UserKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<User> findPage(Specification<User> specification, Sort sort, int limit) {
+        return select(User.class, (root, cb) -> root, specification, sort, limit);
+    }
+
+    @Override
+    public List<CompactUser> findCompactPage(Specification<User> specification, Sort sort, int limit) {
+        return select(CompactUser.class, (root, cb) -> cb.construct(CompactUser.class,
+                root.get("id"), root.get("name"), root.get("email"), root.get("age"), root.get("createdAt")),
+                specification, sort, limit);
+    }
+
+    private <T> List<T> select(Class<T> resultType,
+                               BiFunction<Root<User>, CriteriaBuilder, Selection<? extends T>> selection,
+                               Specification<User> specification, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(resultType);
+        Root<User> root = query.from(User.class);
+        query.select(selection.apply(root, cb));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,13 +1,24 @@
 package com.aston.repository;
 
+import com.aston.dto.CompactUser;
 import com.aston.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностью user в БД
@@ -16,14 +27,17 @@ import java.util.Optional;
  * Spring Data автоматически формирует методы по их названиям
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserKeysetRepository {
     /**
-     * Найти пользователя по email
+     * Найти пользователя по email без учета регистра
+     * Использует уникальный индекс по lower(email)
      *
      * @param email email пользователя
      * @return Optional с пользователем или пустой Optional
      */
-    Optional<User> findByEmail(String email);
+    @Query("SELECT user FROM User user WHERE lower(user.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
 
     /**
      * Найти пользователей по имени
@@ -34,21 +48,171 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByNameContainingIgnoreCase(String name);
 
     /**
-     * Проверить существование пользователя с указанным email
+     * Найти пользователей по части имени, самые похожие первыми
+     * Отбор использует триграммный индекс по upper(name), похожесть считает pg_trgm
+     *
+     * @param query строка поиска для оценки похожести
+     * @param pattern шаблон LIKE с экранированными спецсимволами
+     * @param limit максимальное число пользователей
+     * @return пользователи с оценкой похожести от 0 до 1
+     */
+    @Query(value = "SELECT id, name, email, age, created_at AS \"createdAt\", similarity(name, :query) AS score "
+            + "FROM users WHERE upper(name) LIKE upper(:pattern) ESCAPE '\\' "
+            + "ORDER BY score DESC, id LIMIT :limit", nativeQuery = true)
+    List<NameMatch> findByNameSimilar(@Param("query") String query, @Param("pattern") String pattern,
+                                      @Param("limit") int limit);
+
+    /**
+     * Найти пользователей, email которых начинается с указанной строки, без учета регистра
+     * Использует индекс по lower(email) с text_pattern_ops, короткие email первыми
+     *
+     * @param pattern шаблон LIKE в нижнем регистре с экранированными спецсимволами
+     * @param pageable максимальное число пользователей
+     * @return пользователи, построенные прямо из строк выборки
+     */
+    @Query("SELECT new com.aston.dto.CompactUser(user.id, user.name, user.email, user.age, user.createdAt) "
+            + "FROM User user WHERE lower(user.email) LIKE :pattern ESCAPE '\\' "
+            + "ORDER BY length(user.email), user.id")
+    List<CompactUser> findByEmailPrefix(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Ограничить время выполнения запросов до конца текущей транзакции
+     * Таймаут задается на стороне PostgreSQL и, в отличие от таймаута JDBC, точен до миллисекунд
+     *
+     * @param timeout значение statement_timeout, например 250ms
+     * @return установленное значение
+     */
+    @Query(value = "SELECT set_config('statement_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalStatementTimeout(@Param("timeout") String timeout);
+
+    /**
+     * Проверить существование пользователя с указанным email без учета регистра
      *
      * @param email email для проверки
      * @return true если пользователь существует
      */
-    boolean existsByEmail(String email);
+    @Query("SELECT CASE WHEN COUNT(user) > 0 THEN true ELSE false END FROM User user WHERE lower(user.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
 
     /**
-     * Проверить существование пользователя с email, но исключая пользователя с указанным id
+     * Проверить существование пользователя с email без учета регистра, но исключая пользователя с указанным id
      * Используется при обновлении пользователя, чтобы разрешить сохранение того же email
      *
      * @param email email для проверки
      * @param id ID пользователя для исключения
      * @return true если существует другой пользователь с таким email
      */
-    @Query("SELECT CASE WHEN COUNT(user) > 0 THEN true ELSE false END FROM User user WHERE user.email = :email AND user.id <> :id")
+    @Query("SELECT CASE WHEN COUNT(user) > 0 THEN true ELSE false END FROM User user WHERE lower(user.email) = lower(:email) AND user.id <> :id")
     boolean existsByEmailAndIdNot(@Param("email") String email, @Param("id") Long id);
-}
\ No newline at end of file
+
+    /**
+     * Найти ID пользователей с возрастом в диапазоне, следующие после указанного ID
+     * Используется для обработки фильтра частями по возрастанию ID
+     *
+     * @param minAge минимальный возраст включительно
+     * @param maxAge максимальный возраст включительно
+     * @param afterId ID, после которого начинается часть
+     * @param pageable размер части
+     * @return ID пользователей по возрастанию
+     */
+    @Query("SELECT user.id FROM User user WHERE user.age BETWEEN :minAge AND :maxAge AND user.id > :afterId ORDER BY user.id")
+    List<Long> findIdsByAgeBetween(@Param("minAge") int minAge, @Param("maxAge") int maxAge,
+                                   @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Найти пользователей по списку ID с блокировкой строк до конца транзакции
+     *
+     * @param ids ID пользователей
+     * @return найденные пользователи
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT user FROM User user WHERE user.id IN :ids")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Изменить возраст пользователей одним запросом
+     * Версия увеличивается явно, так как массовый UPDATE не учитывает @Version
+     *
+     * @param ids ID пользователей
+     * @param age новый возраст
+     * @return число измененных записей
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User user SET user.age = :age, user.version = user.version + 1 WHERE user.id IN :ids")
+    int updateAgeByIdIn(@Param("ids") Collection<Long> ids, @Param("age") Integer age);
+
+    /**
+     * Удалить пользователей одним запросом
+     *
+     * @param ids ID пользователей
+     * @return число удаленных записей
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM User user WHERE user.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Все пользователи в компактном виде без загрузки сущностей
+     * Строки читаются из БД частями по мере обхода; поток нужно закрыть внутри транзакции
+     *
+     * @return пользователи, построенные прямо из строк выборки
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.aston.dto.CompactUser(user.id, user.name, user.email, user.age, user.createdAt) FROM User user")
+    Stream<CompactUser> streamAllCompact();
+
+    /**
+     * Число пользователей по возрастным группам
+     *
+     * @return группа и число пользователей в ней
+     */
+    @Query(value = "SELECT CASE "
+            + "WHEN age IS NULL THEN 'unknown' "
+            + "WHEN age < 18 THEN '0-17' "
+            + "WHEN age < 25 THEN '18-24' "
+            + "WHEN age < 35 THEN '25-34' "
+            + "WHEN age < 45 THEN '35-44' "
+            + "WHEN age < 55 THEN '45-54' "
+            + "WHEN age < 65 THEN '55-64' "
+            + "ELSE '65+' END AS bucket, count(*) AS count "
+            + "FROM users GROUP BY bucket", nativeQuery = true)
+    List<GroupCount> countByAgeBucket();
+
+    /**
+     * Число созданных пользователей по дням начиная с указанного момента
+     *
+     * @param from начало периода
+     * @return день в формате yyyy-MM-dd и число пользователей
+     */
+    @Query(value = "SELECT to_char(created_at, 'YYYY-MM-DD') AS bucket, count(*) AS count "
+            + "FROM users WHERE created_at >= :from GROUP BY bucket ORDER BY bucket", nativeQuery = true)
+    List<GroupCount> countByCreationDay(@Param("from") LocalDateTime from);
+
+    /**
+     * Пользователь, найденный по имени, и похожесть имени на строку поиска
+     */
+    interface NameMatch {
+
+        Long getId();
+
+        String getName();
+
+        String getEmail();
+
+        Integer getAge();
+
+        LocalDateTime getCreatedAt();
+
+        double getScore();
+    }
+
+    /**
+     * Результат группировки: значение группы и число записей
+     */
+    interface GroupCount {
+
+        String getBucket();
+
+        long getCount();
+    }
+}
@@ -0,0 +1,70 @@
+package com.aston.repository;
+
+import com.aston.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия динамических запросов к пользователям
+ *
+ * Условие, значение которого не задано, не добавляется в запрос,
+ * поэтому фильтр из любого набора параметров строится без отдельных методов
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> ageFrom(Integer minAge) {
+        return (root, query, cb) -> minAge == null ? null : cb.greaterThanOrEqualTo(root.get("age"), minAge);
+    }
+
+    public static Specification<User> ageTo(Integer maxAge) {
+        return (root, query, cb) -> maxAge == null ? null : cb.lessThanOrEqualTo(root.get("age"), maxAge);
+    }
+
+    public static Specification<User> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> from == null ? null : cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> to == null ? null : cb.lessThan(root.get("createdAt"), to);
+    }
+
+    public static Specification<User> isNotNull(String field) {
+        return (root, query, cb) -> cb.isNotNull(root.get(field));
+    }
+
+    public static Specification<User> isNull(String field) {
+        return (root, query, cb) -> cb.isNull(root.get(field));
+    }
+
+    /**
+     * Записи после курсора при сортировке по (field, id)
+     *
+     * Кроме условия (field > v OR field = v AND id > lastId) добавляется field >= v:
+     * по нему Postgres выполняет диапазонное сканирование индекса (field, id)
+     *
+     * @param field поле сортировки
+     * @param value значение поля последней записи предыдущей страницы
+     * @param lastId ID последней записи предыдущей страницы
+     * @param ascending направление сортировки
+     */
+    public static <T extends Comparable<? super T>> Specification<User> after(String field, T value,
+                                                                               long lastId, boolean ascending) {
+        return (root, query, cb) -> {
+            if ("id".equals(field)) {
+                return ascending ? cb.greaterThan(root.get("id"), lastId) : cb.lessThan(root.get("id"), lastId);
+            }
+            if (ascending) {
+                return cb.and(
+                        cb.greaterThanOrEqualTo(root.get(field), value),
+                        cb.or(cb.greaterThan(root.get(field), value), cb.greaterThan(root.get("id"), lastId)));
+            }
+            return cb.and(
+                    cb.lessThanOrEqualTo(root.get(field), value),
+                    cb.or(cb.lessThan(root.get(field), value), cb.lessThan(root.get("id"), lastId)));
+        };
+    }
+}
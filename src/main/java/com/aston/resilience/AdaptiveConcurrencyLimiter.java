@@ -0,0 +1,120 @@
+package com.aston.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Адаптивный лимит одновременных обращений к БД (AIMD с градиентным снижением)
+ *
+ * После каждого окна из windowSize вызовов считается p99 задержки:
+ * если p99 выше порога, лимит уменьшается пропорционально превышению
+ * (не сильнее чем до backoffRatio за окно и не ниже minLimit),
+ * иначе при полной загрузке лимит растет на единицу до maxLimit
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_DECREASE_RATIO = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int limit;
+    private volatile long lastP99Nanos;
+
+    private final long[] window;
+    private int windowPosition;
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio, int windowSize) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Некорректные границы лимита: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.window = new long[windowSize];
+    }
+
+    /**
+     * Занять слот, если текущий лимит не исчерпан
+     *
+     * @return true если вызов разрешен; после вызова нужно обязательно вызвать {@link #release(long)}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освободить слот и учесть задержку завершившегося вызова
+     *
+     * @param latencyNanos длительность вызова в наносекундах
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        recordSample(latencyNanos, inFlightBefore);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getLastP99Nanos() {
+        return lastP99Nanos;
+    }
+
+    private synchronized void recordSample(long latencyNanos, int inFlightBefore) {
+        window[windowPosition++] = latencyNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+
+        if (windowPosition == window.length) {
+            adjustLimit(percentile99(), windowMaxInFlight);
+            windowPosition = 0;
+            windowMaxInFlight = 0;
+        }
+    }
+
+    private void adjustLimit(long p99Nanos, int maxInFlight) {
+        lastP99Nanos = p99Nanos;
+        int current = limit;
+
+        if (p99Nanos > latencyThresholdNanos) {
+            double gradient = (double) latencyThresholdNanos / p99Nanos;
+            double ratio = Math.max(MIN_DECREASE_RATIO, Math.min(backoffRatio, gradient));
+            limit = Math.max(minLimit, (int) (current * ratio));
+        } else if (maxInFlight >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    private long percentile99() {
+        long[] sorted = window.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(sorted.length * 0.99) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
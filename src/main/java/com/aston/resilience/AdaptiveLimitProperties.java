@@ -0,0 +1,44 @@
+package com.aston.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки адаптивного лимита одновременных обращений к БД
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "resilience.adaptive-limit")
+public class AdaptiveLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 100;
+
+    /**
+     * Порог p99 задержки, выше которого лимит снижается
+     */
+    private Duration latencyThreshold = Duration.ofMillis(250);
+
+    /**
+     * Максимальный коэффициент снижения лимита за одно окно
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Число вызовов в окне расчета p99
+     */
+    private int windowSize = 100;
+
+    /**
+     * Значение заголовка Retry-After при отказе
+     */
+    private int retryAfterSeconds = 1;
+}
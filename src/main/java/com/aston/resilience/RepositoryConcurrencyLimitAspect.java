@@ -0,0 +1,36 @@
+package com.aston.resilience;
+
+import com.aston.exception.ServiceOverloadedException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Аспект, ограничивающий одновременные вызовы UserRepository адаптивным лимитом
+ *
+ * При исчерпании лимита вызов не доходит до пула соединений,
+ * а завершается ServiceOverloadedException (HTTP 503)
+ */
+@Aspect
+@RequiredArgsConstructor
+public class RepositoryConcurrencyLimitAspect {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int retryAfterSeconds;
+
+    @Around("this(com.aston.repository.UserRepository)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException(
+                    "Сервис перегружен. Пожалуйста, повторите попытку позже.", retryAfterSeconds);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.aston.service;
+
+import com.aston.dto.UserRequest;
+import com.aston.dto.UserResource;
+import com.aston.exception.IdempotencyConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Обработка заголовка Idempotency-Key для создания пользователя
+ *
+ * Хранит результат первого выполнения запроса в памяти с TTL и при повторе
+ * с тем же ключом возвращает сохраненный ответ, не обращаясь к БД и Kafka.
+ * Повтор сравнивается с копией исходного тела запроса целиком.
+ * Записи хранятся в порядке завершения: при превышении max-entries
+ * вытесняются сначала истекшие, затем самые старые
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final int maxEntries;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    @Autowired
+    public IdempotencyService(@Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.in-progress-timeout:30s}") Duration inProgressTimeout,
+                              @Value("${idempotency.max-entries:100000}") int maxEntries) {
+        this(ttl, inProgressTimeout, maxEntries, Clock.systemUTC());
+    }
+
+    public IdempotencyService(Duration ttl, Duration inProgressTimeout, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Выполнить создание пользователя не более одного раза для ключа
+     *
+     * @param key значение заголовка Idempotency-Key
+     * @param request тело запроса, по которому проверяется совпадение повторов
+     * @param action создание пользователя
+     * @return результат первого выполнения и признак повтора
+     * @throws IdempotencyConflictException если запрос с ключом еще выполняется или ключ использован с другим телом
+     */
+    public Result execute(String key, UserRequest request, Supplier<UserResource> action) {
+        UserRequest fingerprint = copyOf(request);
+        Entry reserved;
+        Entry existing;
+        synchronized (entries) {
+            long now = clock.millis();
+            existing = entries.get(key);
+            if (existing == null || existing.expiresAt <= now) {
+                reserved = new Entry(fingerprint, now + inProgressTimeout.toMillis());
+                entries.remove(key);
+                entries.put(key, reserved);
+                existing = reserved;
+            } else {
+                reserved = null;
+            }
+        }
+
+        if (existing != reserved) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyConflictException("Ключ идемпотентности уже использован с другими данными запроса");
+            }
+            if (existing.response == null) {
+                throw new IdempotencyConflictException("Запрос с этим ключом идемпотентности еще выполняется");
+            }
+            log.debug("Повтор запроса создания пользователя по ключу идемпотентности");
+            return new Result(existing.response, true);
+        }
+
+        UserResource response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // неуспешный запрос можно повторить с тем же ключом
+            synchronized (entries) {
+                entries.remove(key, reserved);
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            // переносится в конец: порядок записей совпадает с порядком истечения
+            if (entries.remove(key, reserved)) {
+                entries.put(key, reserved.complete(response, clock.millis() + ttl.toMillis()));
+            }
+            evictExpiredAndOldest();
+        }
+        return new Result(response, false);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Удалить истекшие записи с начала и самые старые сверх max-entries
+     * Просмотр останавливается на первой актуальной записи, если лимит не превышен
+     */
+    private void evictExpiredAndOldest() {
+        long now = clock.millis();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest.expiresAt > now && entries.size() <= maxEntries) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static UserRequest copyOf(UserRequest request) {
+        return UserRequest.builder()
+                .name(request.getName())
+                .email(request.getEmail())
+                .age(request.getAge())
+                .build();
+    }
+
+    /**
+     * Результат идемпотентного выполнения
+     */
+    public static final class Result {
+
+        private final UserResource resource;
+        private final boolean replayed;
+
+        private Result(UserResource resource, boolean replayed) {
+            this.resource = resource;
+            this.replayed = replayed;
+        }
+
+        public UserResource getResource() {
+            return resource;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static final class Entry {
+
+        private final UserRequest fingerprint;
+        private final long expiresAt;
+        private final UserResource response;
+
+        private Entry(UserRequest fingerprint, long expiresAt) {
+            this(fingerprint, expiresAt, null);
+        }
+
+        private Entry(UserRequest fingerprint, long expiresAt, UserResource response) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+            this.response = response;
+        }
+
+        private Entry complete(UserResource response, long expiresAt) {
+            return new Entry(fingerprint, expiresAt, response);
+        }
+    }
+}
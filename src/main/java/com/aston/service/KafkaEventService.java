@@ -1,11 +1,19 @@
 package com.aston.service;
 
 import com.aston.dto.UserEvent;
+import com.aston.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Slf4j
 @Service
@@ -17,34 +25,132 @@ public class KafkaEventService {
     @Value("${kafka.topics.user-events}")
     private String userEventsTopic;
 
-    public void sendUserCreatedEvent(Long userId, String email, String name) {
-        UserEvent event = UserEvent.builder()
-                .eventType(UserEvent.EventType.USER_CREATED)
-                .userId(userId)
-                .email(email)
-                .name(name)
-                .build();
+    /**
+     * Источник событий: service - отправка из запросов, cdc - из логической репликации БД
+     */
+    @Value("${user-events.source:service}")
+    private String eventSource;
+
+    public void sendUserCreatedEvent(User user) {
+        sendEvent(toEvent(UserEvent.EventType.USER_CREATED, user));
+    }
+
+    public void sendUserUpdatedEvent(User user) {
+        sendEvent(toEvent(UserEvent.EventType.USER_UPDATED, user));
+    }
+
+    /**
+     * Отправить события создания для пачки пользователей
+     */
+    public void sendUserCreatedEvents(List<User> users) {
+        sendBatch(UserEvent.EventType.USER_CREATED, users);
+    }
+
+    /**
+     * Отправить события изменения для пачки пользователей
+     */
+    public void sendUserUpdatedEvents(List<User> users) {
+        sendBatch(UserEvent.EventType.USER_UPDATED, users);
+    }
+
+    /**
+     * Отправить события удаления и tombstone для пачки пользователей
+     */
+    public void sendUserDeletedEvents(List<User> users) {
+        sendBatch(UserEvent.EventType.USER_DELETED, users);
+    }
+
+    /**
+     * Отправить событие удаления и tombstone для ключа пользователя,
+     * чтобы при компактификации топика запись пользователя была удалена
+     */
+    public void sendUserDeletedEvent(User user) {
+        sendEvent(toDeletedEvent(user));
+        sendTombstone(user.getId());
+    }
 
-        sendEvent(event);
+    /**
+     * Отправить события пачки без ожидания каждой записи: producer собирает их в свои пакеты,
+     * flush отправляет остаток один раз на пачку, после чего проверяются результаты всех отправок
+     */
+    private void sendBatch(UserEvent.EventType eventType, List<User> users) {
+        if (isCdcSource() || users.isEmpty()) {
+            return;
+        }
+        boolean deleted = eventType == UserEvent.EventType.USER_DELETED;
+        List<ListenableFuture<SendResult<String, Object>>> futures = new ArrayList<>(deleted ? users.size() * 2 : users.size());
+        int failed = 0;
+        for (User user : users) {
+            String key = String.valueOf(user.getId());
+            try {
+                futures.add(kafkaTemplate.send(userEventsTopic, key, deleted ? toDeletedEvent(user) : toEvent(eventType, user)));
+                if (deleted) {
+                    futures.add(kafkaTemplate.send(userEventsTopic, key, null));
+                }
+            } catch (Exception e) {
+                failed++;
+                log.error("Ошибка при отправке события в Kafka: {}, {}", kv("eventType", eventType), kv("userId", user.getId()), e);
+            }
+        }
+        kafkaTemplate.flush();
+
+        for (ListenableFuture<SendResult<String, Object>> future : futures) {
+            if (future.completable().isCompletedExceptionally()) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.error("Часть пачки событий не отправлена в Kafka: {}, {}, {}",
+                    kv("eventType", eventType), kv("count", users.size()), kv("failed", failed));
+        } else {
+            log.debug("Пачка событий отправлена в Kafka: {}, {}", kv("eventType", eventType), kv("count", users.size()));
+        }
+    }
+
+    private boolean isCdcSource() {
+        return "cdc".equalsIgnoreCase(eventSource);
     }
 
-    public void sendUserDeletedEvent(Long userId, String email, String name) {
-        UserEvent event = UserEvent.builder()
-                .eventType(UserEvent.EventType.USER_DELETED)
-                .userId(userId)
-                .email(email)
-                .name(name)
+    private UserEvent toEvent(UserEvent.EventType eventType, User user) {
+        return UserEvent.builder()
+                .eventType(eventType)
+                .userId(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .age(user.getAge())
+                .createdAt(user.getCreatedAt())
+                .version(user.getVersion())
                 .build();
+    }
 
-        sendEvent(event);
+    private UserEvent toDeletedEvent(User user) {
+        UserEvent event = toEvent(UserEvent.EventType.USER_DELETED, user);
+        // удаление не меняет запись в БД, поэтому версию события увеличиваем сами
+        event.setVersion(user.getVersion() == null ? null : user.getVersion() + 1);
+        return event;
     }
 
     private void sendEvent(UserEvent event) {
+        if (isCdcSource()) {
+            return;
+        }
+        try {
+            kafkaTemplate.send(userEventsTopic, String.valueOf(event.getUserId()), event);
+            log.debug("Событие отправлено в Kafka: {}, {}", kv("eventType", event.getEventType()), kv("userId", event.getUserId()));
+        } catch (Exception e) {
+            log.error("Ошибка при отправке события в Kafka: {}, {}", kv("eventType", event.getEventType()), kv("userId", event.getUserId()), e);
+        }
+    }
+
+    private void sendTombstone(Long userId) {
+        if (isCdcSource()) {
+            return;
+        }
         try {
-            kafkaTemplate.send(userEventsTopic, event);
-            log.info("Событие отправлено в Kafka: {}", event);
+            kafkaTemplate.send(userEventsTopic, String.valueOf(userId), null);
+            log.debug("Tombstone отправлен в Kafka: {}", kv("userId", userId));
         } catch (Exception e) {
-            log.error("Ошибка при отправке события в Kafka: {}", e.getMessage(), e);
+            log.error("Ошибка при отправке tombstone в Kafka: {}", kv("userId", userId), e);
         }
     }
 
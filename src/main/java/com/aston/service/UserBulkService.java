@@ -0,0 +1,163 @@
+package com.aston.service;
+
+import com.aston.cache.UserCache;
+import com.aston.cache.UserSnapshotStore;
+import com.aston.dto.BulkOperationResult;
+import com.aston.dto.BulkUserRequest;
+import com.aston.entity.User;
+import com.aston.exception.UserException;
+import com.aston.repository.UserRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Массовое удаление и изменение пользователей
+ *
+ * Пользователи обрабатываются частями по bulk.chunk-size: каждая часть - одна транзакция
+ * с одним UPDATE или DELETE по списку ID. После фиксации части пользователи удаляются
+ * из кэшей этого экземпляра, а события отправляются пачкой и очищают кэши остальных
+ */
+@Slf4j
+@Service
+public class UserBulkService {
+
+    private static final int MIN_AGE = 0;
+    private static final int MAX_AGE = 150;
+
+    private final UserRepository userRepository;
+    private final KafkaEventService kafkaEventService;
+    private final UserSnapshotStore userSnapshotStore;
+    private final UserCache userCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public UserBulkService(UserRepository userRepository,
+                           KafkaEventService kafkaEventService,
+                           UserSnapshotStore userSnapshotStore,
+                           UserCache userCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bulk.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.kafkaEventService = kafkaEventService;
+        this.userSnapshotStore = userSnapshotStore;
+        this.userCache = userCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Удалить выбранных пользователей
+     *
+     * @param request список ID или диапазон возраста
+     * @return число удаленных пользователей
+     * @throws UserException если пользователи не выбраны
+     */
+    @Bulkhead(name = "userBulk")
+    public BulkOperationResult deleteUsers(BulkUserRequest request) {
+        return execute("delete", request, this::deleteChunk);
+    }
+
+    /**
+     * Изменить возраст выбранных пользователей
+     *
+     * @param request список ID или диапазон возраста и новый возраст
+     * @return число измененных пользователей
+     * @throws UserException если пользователи или новый возраст не указаны
+     */
+    @Bulkhead(name = "userBulk")
+    public BulkOperationResult updateAge(BulkUserRequest request) {
+        if (request.getAge() == null) {
+            throw new UserException("Не указан новый возраст");
+        }
+        int age = request.getAge();
+        return execute("update", request, ids -> updateChunk(ids, age));
+    }
+
+    private BulkOperationResult execute(String operation, BulkUserRequest request, ToIntFunction<List<Long>> chunkOperation) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byAge = request.getMinAge() != null || request.getMaxAge() != null;
+        if (byIds == byAge) {
+            throw new UserException("Укажите либо список ID, либо диапазон возраста");
+        }
+
+        long started = System.nanoTime();
+        long affected = 0;
+        if (byIds) {
+            List<Long> ids = request.getIds().stream().distinct().collect(Collectors.toList());
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                affected += chunkOperation.applyAsInt(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+            }
+        } else {
+            int minAge = request.getMinAge() != null ? request.getMinAge() : MIN_AGE;
+            int maxAge = request.getMaxAge() != null ? request.getMaxAge() : MAX_AGE;
+            if (minAge > maxAge) {
+                throw new UserException("Минимальный возраст больше максимального");
+            }
+            // части выбираются по возрастанию ID, поэтому измененные записи не попадают в выборку повторно
+            long afterId = 0;
+            List<Long> ids;
+            do {
+                ids = userRepository.findIdsByAgeBetween(minAge, maxAge, afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                affected += chunkOperation.applyAsInt(ids);
+                afterId = ids.get(ids.size() - 1);
+            } while (ids.size() == chunkSize);
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Массовая операция выполнена: {}, {}, {}",
+                kv("operation", operation), kv("affected", affected), kv("durationMs", durationMs));
+        return BulkOperationResult.builder()
+                .affected(affected)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        List<User> deleted = transactionTemplate.execute(status -> {
+            // блокировка строк не дает параллельному обновлению изменить их до удаления
+            List<User> users = userRepository.findAllByIdForUpdate(ids);
+            if (!users.isEmpty()) {
+                userRepository.deleteByIdIn(users.stream().map(User::getId).collect(Collectors.toList()));
+            }
+            return users;
+        });
+        return afterCommit(deleted, kafkaEventService::sendUserDeletedEvents);
+    }
+
+    private int updateChunk(List<Long> ids, int age) {
+        List<User> updated = transactionTemplate.execute(status -> {
+            int count = userRepository.updateAgeByIdIn(ids, age);
+            return count == 0 ? new ArrayList<User>() : userRepository.findAllById(ids);
+        });
+        return afterCommit(updated, kafkaEventService::sendUserUpdatedEvents);
+    }
+
+    private int afterCommit(List<User> users, Consumer<List<User>> publisher) {
+        if (users == null || users.isEmpty()) {
+            return 0;
+        }
+        users.forEach(user -> {
+            userSnapshotStore.evict(user.getId());
+            userCache.evict(user.getId());
+        });
+        publisher.accept(users);
+        return users.size();
+    }
+}
@@ -0,0 +1,123 @@
+package com.aston.service;
+
+import com.aston.dto.CompactUser;
+import com.aston.entity.User;
+import com.aston.exception.UserException;
+import com.aston.repository.UserSpecifications;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Курсор keyset-пагинации: поле и направление сортировки, значение поля и ID последней записи страницы
+ *
+ * Передается клиенту в виде непрозрачной строки base64url. Пустое значение поля
+ * означает, что выдача дошла до записей без значения: они идут после всех остальных
+ */
+final class UserCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private static final String ASC = "asc";
+    private static final String DESC = "desc";
+
+    private final String field;
+    private final boolean ascending;
+    private final LocalDateTime createdAt;
+    private final Integer age;
+    private final long id;
+
+    private UserCursor(String field, boolean ascending, LocalDateTime createdAt, Integer age, long id) {
+        this.field = field;
+        this.ascending = ascending;
+        this.createdAt = createdAt;
+        this.age = age;
+        this.id = id;
+    }
+
+    static UserCursor of(String field, boolean ascending, User last) {
+        return new UserCursor(field, ascending, last.getCreatedAt(), last.getAge(), last.getId());
+    }
+
+    static UserCursor of(String field, boolean ascending, CompactUser last) {
+        return new UserCursor(field, ascending, last.getCreatedAt(), last.getAge(), last.getId());
+    }
+
+    /**
+     * @param cursor строка курсора из запроса
+     * @param field поле сортировки текущего запроса
+     * @param ascending направление сортировки текущего запроса
+     * @throws UserException если курсор поврежден или получен для другой сортировки или направления
+     */
+    static UserCursor decode(String cursor, String field, boolean ascending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new UserException("Некорректный курсор");
+        }
+        if (parts.length != 4 || !parts[0].equals(field) || !parts[1].equals(ascending ? ASC : DESC)) {
+            throw new UserException("Курсор не соответствует параметрам сортировки");
+        }
+        String value = parts[2];
+        try {
+            return new UserCursor(field, ascending,
+                    "createdAt".equals(field) && !value.isEmpty() ? LocalDateTime.parse(value) : null,
+                    "age".equals(field) && !value.isEmpty() ? Integer.valueOf(value) : null,
+                    Long.parseLong(parts[3]));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new UserException("Некорректный курсор");
+        }
+    }
+
+    String encode() {
+        String value;
+        switch (field) {
+            case "createdAt":
+                value = createdAt == null ? "" : createdAt.toString();
+                break;
+            case "age":
+                value = age == null ? "" : String.valueOf(age);
+                break;
+            default:
+                value = "";
+        }
+        String raw = field + SEPARATOR + (ascending ? ASC : DESC) + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return true, если последняя запись страницы была без значения поля сортировки
+     */
+    boolean isPastNullValue() {
+        switch (field) {
+            case "createdAt":
+                return createdAt == null;
+            case "age":
+                return age == null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Условие выборки записей после курсора; после записи без значения поля
+     * следуют только такие же записи по порядку ID
+     */
+    Specification<User> after() {
+        if (isPastNullValue()) {
+            return UserSpecifications.isNull(field).and(UserSpecifications.after("id", id, id, ascending));
+        }
+        switch (field) {
+            case "createdAt":
+                return UserSpecifications.after(field, createdAt, id, ascending);
+            case "age":
+                return UserSpecifications.after(field, age, id, ascending);
+            default:
+                return UserSpecifications.after("id", id, id, ascending);
+        }
+    }
+}
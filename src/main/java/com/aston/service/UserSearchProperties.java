@@ -0,0 +1,36 @@
+package com.aston.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки объединенного поиска пользователей по имени и email
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-search")
+public class UserSearchProperties {
+
+    /**
+     * Общий бюджет времени поиска; не успевшие запросы не попадают в ответ
+     */
+    private Duration timeout = Duration.ofMillis(300);
+
+    /**
+     * Максимальное число пользователей в ответе и в выборке каждого запроса
+     */
+    private int limit = 20;
+
+    /**
+     * Потоки для параллельных запросов: по два на одновременный поиск
+     */
+    private int threads = 8;
+
+    /**
+     * Очередь запросов, ожидающих свободного потока
+     */
+    private int queueCapacity = 16;
+}
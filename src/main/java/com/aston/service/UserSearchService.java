@@ -0,0 +1,233 @@
+package com.aston.service;
+
+import com.aston.dto.CompactUser;
+import com.aston.dto.UserSearchResult;
+import com.aston.exception.ServiceOverloadedException;
+import com.aston.exception.UserException;
+import com.aston.logging.LogMasker;
+import com.aston.repository.UserRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Объединенный поиск пользователей по имени и email
+ *
+ * Запросы по части имени (триграммы) и по началу email выполняются параллельно
+ * на ограниченном пуле потоков. Ответ собирается в пределах user-search.timeout:
+ * запрос, не успевший к сроку, в ответ не попадает, и результат помечается частичным.
+ * Каждый запрос выполняется с statement_timeout по остатку этого срока, поэтому
+ * брошенный запрос освобождает поток и соединение к сроку ответа, а не позже.
+ * Порядок: точное совпадение email, затем совпадения по началу email (чем короче
+ * email, тем выше), затем совпадения только по имени по похожести; пользователь,
+ * найденный обоими запросами, получает сумму оценок
+ */
+@Slf4j
+@Service
+public class UserSearchService implements DisposableBean {
+
+    static final String NAME = "name";
+    static final String EMAIL = "email";
+
+    private static final double EMAIL_EXACT_SCORE = 10;
+    private static final double EMAIL_PREFIX_SCORE = 2;
+
+    private final UserRepository userRepository;
+    private final UserSearchProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public UserSearchService(UserRepository userRepository,
+                             UserSearchProperties properties,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-search-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Найти пользователей, имя или email которых совпадает со строкой поиска
+     *
+     * @param query строка поиска: часть имени или начало email
+     * @return найденные пользователи и признак частичного результата
+     */
+    @RateLimiter(name = "userSearch")
+    @Bulkhead(name = "userSearch")
+    public UserSearchResult search(String query) {
+        String normalized = query == null ? "" : query.trim();
+        if (normalized.isEmpty()) {
+            throw new UserException("Строка поиска не может быть пустой");
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Объединенный поиск пользователей: {}", LogMasker.maskEmails(normalized));
+        }
+
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        String pattern = "%" + escapeLike(normalized) + "%";
+        String emailPattern = escapeLike(normalized.toLowerCase(Locale.ROOT)) + "%";
+        int limit = properties.getLimit();
+
+        Map<String, CompletableFuture<Map<Long, ScoredUser>>> legs = new LinkedHashMap<>();
+        legs.put(EMAIL, submit(deadline, () -> scoreEmailMatches(normalized,
+                userRepository.findByEmailPrefix(emailPattern, PageRequest.of(0, limit)))));
+        legs.put(NAME, submit(deadline, () -> scoreNameMatches(
+                userRepository.findByNameSimilar(normalized, pattern, limit))));
+
+        Map<Long, ScoredUser> merged = new HashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Map<Long, ScoredUser>>> leg : legs.entrySet()) {
+            Map<Long, ScoredUser> matches = await(leg.getKey(), leg.getValue(), deadline);
+            if (matches == null) {
+                unavailable.add(leg.getKey());
+                continue;
+            }
+            matches.forEach((id, match) -> merged.merge(id, match, ScoredUser::plus));
+        }
+
+        if (unavailable.size() == legs.size()) {
+            throw new ServiceOverloadedException("Поиск не уложился в отведенное время. Повторите попытку позже.", 1);
+        }
+
+        List<CompactUser> items = merged.values().stream()
+                .sorted(Comparator.comparingDouble(ScoredUser::getScore).reversed()
+                        .thenComparing(scored -> scored.getUser().getId()))
+                .limit(limit)
+                .map(ScoredUser::getUser)
+                .collect(Collectors.toList());
+        return new UserSearchResult(items, !unavailable.isEmpty(), unavailable);
+    }
+
+    /**
+     * Запустить запрос в пуле поиска; переполнение пула дает неуспешный запрос, а не ошибку поиска
+     */
+    private CompletableFuture<Map<Long, ScoredUser>> submit(long deadline, Supplier<Map<Long, ScoredUser>> leg) {
+        try {
+            return CompletableFuture.supplyAsync(() -> withDeadline(deadline, leg), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Выполнить запрос в транзакции, ограничив время запросов к БД остатком срока поиска
+     */
+    private <T> T withDeadline(long deadline, Supplier<T> leg) {
+        long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        return transactionTemplate.execute(status -> {
+            userRepository.setLocalStatementTimeout(remainingMillis + "ms");
+            return leg.get();
+        });
+    }
+
+    /**
+     * Дождаться запроса не дольше общего срока
+     *
+     * @return результат запроса или null, если он не успел или завершился ошибкой
+     */
+    private Map<Long, ScoredUser> await(String name, CompletableFuture<Map<Long, ScoredUser>> leg, long deadline) {
+        try {
+            return leg.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // запрос из очереди после отмены не выполнится; уже начатый прервет statement_timeout
+            leg.cancel(false);
+            log.warn("Поиск по {} не уложился в {} мс, результат частичный", name, properties.getTimeout().toMillis());
+        } catch (ExecutionException e) {
+            log.warn("Поиск по {} завершился ошибкой, результат частичный: {}", name, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            leg.cancel(false);
+        }
+        return null;
+    }
+
+    private static Map<Long, ScoredUser> scoreEmailMatches(String query, List<CompactUser> users) {
+        Map<Long, ScoredUser> scored = new HashMap<>();
+        for (CompactUser user : users) {
+            double score = user.getEmail().equalsIgnoreCase(query)
+                    ? EMAIL_EXACT_SCORE
+                    : EMAIL_PREFIX_SCORE + (double) query.length() / user.getEmail().length();
+            scored.put(user.getId(), new ScoredUser(user, score));
+        }
+        return scored;
+    }
+
+    private static Map<Long, ScoredUser> scoreNameMatches(List<UserRepository.NameMatch> matches) {
+        Map<Long, ScoredUser> scored = new HashMap<>();
+        for (UserRepository.NameMatch match : matches) {
+            CompactUser user = new CompactUser(match.getId(), match.getName(), match.getEmail(),
+                    match.getAge(), match.getCreatedAt());
+            scored.put(user.getId(), new ScoredUser(user, match.getScore()));
+        }
+        return scored;
+    }
+
+    /**
+     * Экранировать спецсимволы LIKE, чтобы строка поиска сравнивалась буквально
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Пользователь и его оценка релевантности
+     */
+    private static final class ScoredUser {
+
+        private final CompactUser user;
+        private final double score;
+
+        private ScoredUser(CompactUser user, double score) {
+            this.user = user;
+            this.score = score;
+        }
+
+        private CompactUser getUser() {
+            return user;
+        }
+
+        private double getScore() {
+            return score;
+        }
+
+        private ScoredUser plus(ScoredUser other) {
+            return new ScoredUser(user, score + other.score);
+        }
+    }
+}
@@ -1,19 +1,49 @@
 package com.aston.service;
 
+import com.aston.cache.UserCache;
+import com.aston.cache.UserSnapshotStore;
+import com.aston.dto.CompactUser;
+import com.aston.dto.CompactUserPage;
+import com.aston.dto.UserFilter;
+import com.aston.dto.UserPage;
 import com.aston.dto.UserRequest;
 import com.aston.dto.UserResource;
 import com.aston.entity.User;
+import com.aston.exception.ServiceOverloadedException;
+import com.aston.exception.ServiceUnavailableException;
 import com.aston.exception.UserException;
+import com.aston.logging.LogMasker;
+import com.aston.logging.LogSampler;
 import com.aston.repository.UserRepository;
+import com.aston.repository.UserSpecifications;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 
 /**
@@ -28,8 +58,17 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class UserService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    /**
+     * Вместе с лимитом userBatchLookup (100 вызовов в секунду) ограничивает чтение до 10 000 строк в секунду
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final UserRepository userRepository;
     private final KafkaEventService kafkaEventService;
+    private final LogSampler logSampler;
+    private final UserSnapshotStore userSnapshotStore;
+    private final UserCache userCache;
 
     /**
      * Преобразует сущность user в DTO UserResource
@@ -38,13 +77,9 @@ public class UserService {
      * @return DTO для ответа
      */
     private UserResource convertToResource(User user) {
-        return UserResource.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .age(user.getAge())
-                .createdAt(user.getCreatedAt())
-                .build();
+        // конструктор вместо билдера: на списках это на один объект меньше на строку
+        return new UserResource(user.getId(), user.getName(), user.getEmail(), user.getAge(),
+                user.getCreatedAt(), null);
     }
 
     /**
@@ -56,10 +91,14 @@ public class UserService {
      */
     @CircuitBreaker(name = "userRepository", fallbackMethod = "createUserFallback")
     @Retry(name = "userRepository")
+    @RateLimiter(name = "userWrite")
+    @Bulkhead(name = "userWrite")
     @Transactional
     public UserResource createUser(UserRequest userRequest) {
-        log.info("Создание нового пользователя: name={}, email={}, age={}",
-                userRequest.getName(), userRequest.getEmail(), userRequest.getAge());
+        boolean sampled = logSampler.isInfoSampled(log, "user.create");
+        if (sampled) {
+            log.info("Создание нового пользователя: {}", kv("email", LogMasker.email(userRequest.getEmail())));
+        }
 
         if (userRepository.existsByEmail(userRequest.getEmail())) {
             throw new UserException("Пользователь с email '" + userRequest.getEmail() + "' уже существует");
@@ -71,48 +110,141 @@ public class UserService {
                 .age(userRequest.getAge())
                 .build();
 
-        user = userRepository.save(user);
+        User created = userRepository.save(user);
 
-        // отправляем событие регистрации пользователя в кафку
-        kafkaEventService.sendUserCreatedEvent(user.getId(), user.getEmail(), user.getName());
+        // отправляем событие регистрации пользователя в кафку после коммита
+        afterCommit(() -> kafkaEventService.sendUserCreatedEvent(created));
 
-        log.info("Пользователь создан: id={}, email={}", user.getId(), user.getEmail());
-        return convertToResource(user);
+        if (sampled) {
+            log.info("Пользователь создан: {}", kv("userId", created.getId()));
+        }
+        return convertToResource(created);
     }
 
     public UserResource createUserFallback(UserRequest userRequest, Exception e) {
         log.error("Fallback for createUser: {}", e.getMessage());
-        throw new UserException("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
+        throw new ServiceUnavailableException("Сервис временно недоступен. Пожалуйста, попробуйте позже.", e);
+    }
+
+    /**
+     * Бизнес-ошибки (например, занятый email) пробрасываются как есть
+     */
+    public UserResource createUserFallback(UserRequest userRequest, UserException e) {
+        throw e;
+    }
+
+    /**
+     * Отказ лимитера, bulkhead или адаптивного лимита БД не подменяется ответом fallback,
+     * а пробрасывается для ответа 429 или 503
+     */
+    public UserResource createUserFallback(UserRequest userRequest, RequestNotPermitted e) {
+        throw e;
+    }
+
+    public UserResource createUserFallback(UserRequest userRequest, BulkheadFullException e) {
+        throw e;
+    }
+
+    public UserResource createUserFallback(UserRequest userRequest, ServiceOverloadedException e) {
+        throw e;
     }
 
     /**
      * Получение пользователя по id
      *
+     * Сначала проверяется кэш пользователей, если он включен. Ответ из БД сохраняется
+     * в кэш и в локальный снимок, который отдается fallback-методом при недоступной БД.
+     * Метод выполняется вне транзакции: попадание в кэш не занимает соединение из пула,
+     * а чтение из БД идет в собственной транзакции репозитория
+     *
      * @param id id пользователя
      * @return пользователь в виде DTO
      * @throws UserException если пользователь не найден
      */
     @CircuitBreaker(name = "userRepository", fallbackMethod = "getUserByIdFallback")
+    @Bulkhead(name = "userLookup")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResource getUserById(Long id) {
         log.debug("Получение пользователя по ID: {}", id);
 
+        Optional<UserResource> cached = userCache.get(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserException("Пользователь с ID " + id + " не найден"));
 
-        return convertToResource(user);
+        UserResource resource = convertToResource(user);
+        userSnapshotStore.put(resource);
+        userCache.put(resource);
+        return resource;
     }
 
+    /**
+     * Fallback для getUserById: отдает последнее известное значение из локального снимка
+     *
+     * @param id id пользователя
+     * @param e причина отказа
+     * @return устаревшие данные пользователя с заполненным staleAgeSeconds
+     * @throws ServiceUnavailableException если снимка нет
+     */
     public UserResource getUserByIdFallback(Long id, Exception e) {
         log.error("Fallback for getUserById: {}", e.getMessage());
-        throw new UserException("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
+        return userSnapshotStore.getStale(id)
+                .orElseThrow(() -> new ServiceUnavailableException("Сервис временно недоступен. Пожалуйста, попробуйте позже.", e));
     }
 
+    /**
+     * Бизнес-ошибки (например, пользователь не найден) не маскируются снимком
+     */
+    public UserResource getUserByIdFallback(Long id, UserException e) {
+        throw e;
+    }
+
+    /**
+     * При перегрузке отдаем снимок, если он есть, иначе пробрасываем отказ для ответа 429 или 503
+     */
+    public UserResource getUserByIdFallback(Long id, BulkheadFullException e) {
+        return userSnapshotStore.getStale(id).orElseThrow(() -> e);
+    }
+
+    public UserResource getUserByIdFallback(Long id, ServiceOverloadedException e) {
+        return userSnapshotStore.getStale(id).orElseThrow(() -> e);
+    }
+
+    /**
+     * Получение пользователей по списку ID одним запросом
+     *
+     * @param ids ID пользователей
+     * @return найденные пользователи в порядке ID из запроса; отсутствующие ID пропускаются
+     * @throws UserException если ID больше допустимого
+     */
+    @RateLimiter(name = "userBatchLookup")
+    @Bulkhead(name = "userLookup")
+    public List<UserResource> getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new UserException("За один запрос можно получить не больше " + MAX_BATCH_SIZE + " пользователей");
+        }
+        log.debug("Получение пользователей по списку ID: {}", kv("count", ids.size()));
+
+        Map<Long, User> users = userRepository.findAllById(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResource)
+                .collect(Collectors.toList());
+    }
 
     /**
      * Получение всех пользователей
      *
      * @return список всех пользователей
      */
+    @RateLimiter(name = "userList")
+    @Bulkhead(name = "userList")
     public List<UserResource> getAllUsers() {
         log.debug("Получение всех пользователей");
 
@@ -121,12 +253,165 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Список пользователей с фильтрацией, сортировкой и keyset-пагинацией
+     *
+     * Сортировка всегда дополняется ID, поэтому порядок однозначен, а следующая
+     * страница выбирается условием по индексу (created_at, id) или (age, id) без OFFSET
+     *
+     * @param filter параметры фильтра
+     * @return страница пользователей и курсор следующей страницы
+     * @throws UserException если курсор некорректен
+     */
+    @RateLimiter(name = "userList")
+    @Bulkhead(name = "userList")
+    public UserPage findUsers(UserFilter filter) {
+        return findUsersPage(filter);
+    }
+
+    /**
+     * Следующая страница уже разрешенного потокового чтения списка
+     *
+     * В отличие от findUsers не берет разрешения лимита и bulkhead userList:
+     * поток gRPC платит за них один раз первой страницей, иначе длинный поток
+     * исчерпывал бы общий с REST лимит и обрывался на середине.
+     * Нагрузку на БД по-прежнему ограничивает адаптивный лимит репозитория
+     *
+     * @param filter параметры фильтра с курсором предыдущей страницы
+     * @return страница пользователей и курсор следующей страницы
+     * @throws UserException если курсор некорректен
+     */
+    public UserPage findUsersPage(UserFilter filter) {
+        KeysetQuery query = KeysetQuery.of(filter);
+        log.debug("Фильтр пользователей: {}, {}", kv("sort", query.field), kv("limit", query.limit));
+
+        // лишняя запись показывает, есть ли следующая страница
+        List<User> users = query.fetch(userRepository::findPage);
+        String nextCursor = null;
+        if (users.size() > query.limit) {
+            users = users.subList(0, query.limit);
+            nextCursor = UserCursor.of(query.field, query.ascending, users.get(query.limit - 1)).encode();
+        }
+
+        return new UserPage(users.stream()
+                .map(this::convertToResource)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Передать всех пользователей в компактном виде по одному
+     *
+     * Строки выборки сразу становятся CompactUser без сущностей и UserResource
+     * и передаются получателю по мере чтения из БД, пока открыта транзакция
+     *
+     * @param consumer получатель пользователей
+     */
+    @RateLimiter(name = "userList")
+    @Bulkhead(name = "userList")
+    public void forEachUserCompact(Consumer<CompactUser> consumer) {
+        log.debug("Получение всех пользователей в компактном виде");
+        try (Stream<CompactUser> users = userRepository.streamAllCompact()) {
+            users.forEach(consumer);
+        }
+    }
+
+    /**
+     * Страница пользователей в компактном виде; фильтр и курсор те же, что у findUsers
+     *
+     * @param filter параметры фильтра
+     * @return страница пользователей и курсор следующей страницы
+     * @throws UserException если курсор некорректен
+     */
+    @RateLimiter(name = "userList")
+    @Bulkhead(name = "userList")
+    public CompactUserPage findUsersCompact(UserFilter filter) {
+        KeysetQuery query = KeysetQuery.of(filter);
+        log.debug("Фильтр пользователей в компактном виде: {}, {}", kv("sort", query.field), kv("limit", query.limit));
+
+        List<CompactUser> users = query.fetch(userRepository::findCompactPage);
+        String nextCursor = null;
+        if (users.size() > query.limit) {
+            users = users.subList(0, query.limit);
+            nextCursor = UserCursor.of(query.field, query.ascending, users.get(query.limit - 1)).encode();
+        }
+        return new CompactUserPage(users, nextCursor);
+    }
+
+    /**
+     * Условия, сортировка и размер страницы keyset-выборки по фильтру
+     *
+     * Записи без значения поля сортировки (age, createdAt) идут после всех остальных
+     * при любом направлении, между собой - по ID. Страница на границе читается двумя запросами
+     */
+    private static final class KeysetQuery {
+
+        private final String field;
+        private final boolean ascending;
+        private final int limit;
+        private final Specification<User> filters;
+        private final UserCursor cursor;
+
+        private KeysetQuery(String field, boolean ascending, int limit, Specification<User> filters, UserCursor cursor) {
+            this.field = field;
+            this.ascending = ascending;
+            this.limit = limit;
+            this.filters = filters;
+            this.cursor = cursor;
+        }
+
+        private static KeysetQuery of(UserFilter filter) {
+            String field = filter.getSort() != null ? filter.getSort() : "id";
+            boolean ascending = filter.getDirection() == null || "asc".equalsIgnoreCase(filter.getDirection());
+            int limit = filter.getLimit() != null ? filter.getLimit() : DEFAULT_PAGE_SIZE;
+
+            Specification<User> filters = Specification.where(UserSpecifications.ageFrom(filter.getMinAge()))
+                    .and(UserSpecifications.ageTo(filter.getMaxAge()))
+                    .and(UserSpecifications.createdFrom(filter.getCreatedFrom()))
+                    .and(UserSpecifications.createdBefore(filter.getCreatedTo()));
+            UserCursor cursor = filter.getCursor() != null ? UserCursor.decode(filter.getCursor(), field, ascending) : null;
+            return new KeysetQuery(field, ascending, limit, filters, cursor);
+        }
+
+        /**
+         * Прочитать страницу с одной лишней записью, которая показывает, есть ли следующая
+         */
+        private <T> List<T> fetch(KeysetReader<T> reader) {
+            Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+            Specification<User> afterCursor = cursor != null ? cursor.after() : null;
+            if ("id".equals(field) || cursor != null && cursor.isPastNullValue()) {
+                return reader.read(filters.and(afterCursor), Sort.by(direction, "id"), limit + 1);
+            }
+
+            // keyset-условие по (field, id) не выбирает NULL, такие записи дочитываются после
+            List<T> rows = reader.read(filters.and(UserSpecifications.isNotNull(field)).and(afterCursor),
+                    Sort.by(direction, field).and(Sort.by(direction, "id")), limit + 1);
+            if (rows.size() > limit) {
+                return rows;
+            }
+            List<T> page = new ArrayList<>(rows);
+            page.addAll(reader.read(filters.and(UserSpecifications.isNull(field)),
+                    Sort.by(direction, "id"), limit + 1 - rows.size()));
+            return page;
+        }
+    }
+
+    /**
+     * Чтение keyset-страницы: сущности или компактная проекция
+     */
+    @FunctionalInterface
+    private interface KeysetReader<T> {
+
+        List<T> read(Specification<User> specification, Sort sort, int limit);
+    }
+
     /**
      * Поиск пользователей по имени
      *
      * @param name имя или часть имени для поиска
      * @return список найденных пользователей
      */
+    @RateLimiter(name = "userSearch")
+    @Bulkhead(name = "userSearch")
     public List<UserResource> getUsersByName(String name) {
         log.debug("Поиск пользователей по имени: {}", name);
 
@@ -142,8 +427,9 @@ public class UserService {
      * @return пользователь в виде DTO
      * @throws UserException если пользователь не найден
      */
+    @Bulkhead(name = "userLookup")
     public UserResource getUserByEmail(String email) {
-        log.debug("Поиск пользователя по email: {}", email);
+        log.debug("Поиск пользователя по email: {}", LogMasker.email(email));
 
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserException("Пользователь с email " + email + " не найден"));
@@ -159,10 +445,14 @@ public class UserService {
      * @return обновленный пользователь в виде DTO
      * @throws UserException если пользователь не найден или email уже занят другим пользователем
      */
+    @RateLimiter(name = "userWrite")
+    @Bulkhead(name = "userWrite")
     @Transactional
     public UserResource updateUser(Long id, UserRequest userRequest) {
-        log.info("Обновление пользователя с ID {}: name={}, email={}, age={}",
-                id, userRequest.getName(), userRequest.getEmail(), userRequest.getAge());
+        boolean sampled = logSampler.isInfoSampled(log, "user.update");
+        if (sampled) {
+            log.info("Обновление пользователя: {}, {}", kv("userId", id), kv("email", LogMasker.email(userRequest.getEmail())));
+        }
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserException("Пользователь с ID " + id + " не найден"));
@@ -175,10 +465,20 @@ public class UserService {
         user.setEmail(userRequest.getEmail());
         user.setAge(userRequest.getAge());
 
-        user = userRepository.save(user);
+        // flush сразу увеличивает версию, и событие уходит с новой версией
+        User updated = userRepository.saveAndFlush(user);
+        userSnapshotStore.evict(id);
 
-        log.info("Пользователь обновлен: ID={}", id);
-        return convertToResource(user);
+        // отправляем полное состояние пользователя, чтобы потребители обновили свои копии
+        afterCommit(() -> {
+            userCache.evict(id);
+            kafkaEventService.sendUserUpdatedEvent(updated);
+        });
+
+        if (sampled) {
+            log.info("Пользователь обновлен: {}", kv("userId", id));
+        }
+        return convertToResource(updated);
     }
 
     /**
@@ -187,19 +487,44 @@ public class UserService {
      * @param id ID пользователя для удаления
      * @throws UserException если пользователь не найден
      */
+    @RateLimiter(name = "userWrite")
+    @Bulkhead(name = "userWrite")
     @Transactional
     public void deleteUser(Long id) {
-        log.info("Удаление пользователя с ID: {}", id);
+        boolean sampled = logSampler.isInfoSampled(log, "user.delete");
+        if (sampled) {
+            log.info("Удаление пользователя: {}", kv("userId", id));
+        }
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserException("Пользователь с ID " + id + " не найден"));
 
-        String email = user.getEmail();
-        String name = user.getName();
-
-        kafkaEventService.sendUserDeletedEvent(id, email, name);
-
         userRepository.deleteById(id);
-        log.info("Пользователь удален: ID={}", id);
+        userSnapshotStore.evict(id);
+        afterCommit(() -> {
+            userCache.evict(id);
+            kafkaEventService.sendUserDeletedEvent(user);
+        });
+        if (sampled) {
+            log.info("Пользователь удален: {}", kv("userId", id));
+        }
+    }
+
+    /**
+     * Выполнить действие после коммита транзакции: очистка кэша и события user-events
+     * до коммита позволили бы параллельному чтению, в том числе на другом экземпляре,
+     * вернуть в кэш незафиксированное состояние. При откате действие не выполняется
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
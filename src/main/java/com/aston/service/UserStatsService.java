@@ -0,0 +1,108 @@
+package com.aston.service;
+
+import com.aston.dto.UserStats;
+import com.aston.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Статистика пользователей, рассчитанная агрегирующими запросами в БД
+ *
+ * Результат кэшируется на user-stats.ttl: частые запросы дашбордов
+ * в пределах TTL не обращаются к БД. Пересчет выполняет один поток,
+ * остальные получают результат этого пересчета
+ */
+@Slf4j
+@Service
+public class UserStatsService {
+
+    private static final List<String> AGE_BUCKETS =
+            List.of("0-17", "18-24", "25-34", "35-44", "45-54", "55-64", "65+", "unknown");
+
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final int days;
+    private final Clock clock;
+
+    private volatile UserStats cached;
+    private volatile long expiresAt;
+
+    @Autowired
+    public UserStatsService(UserRepository userRepository,
+                            @Value("${user-stats.ttl:10s}") Duration ttl,
+                            @Value("${user-stats.days:30}") int days) {
+        this(userRepository, ttl, days, Clock.systemDefaultZone());
+    }
+
+    public UserStatsService(UserRepository userRepository, Duration ttl, int days, Clock clock) {
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.days = days;
+        this.clock = clock;
+    }
+
+    /**
+     * Получить статистику пользователей
+     *
+     * @return статистика, рассчитанная не раньше чем ttl назад
+     */
+    public UserStats getStats() {
+        UserStats stats = cached;
+        if (stats != null && clock.millis() < expiresAt) {
+            return stats;
+        }
+        synchronized (this) {
+            if (cached != null && clock.millis() < expiresAt) {
+                return cached;
+            }
+            cached = compute();
+            expiresAt = clock.millis() + ttl.toMillis();
+            return cached;
+        }
+    }
+
+    private UserStats compute() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now(clock);
+        LocalDate firstDay = today.minusDays(days - 1L);
+
+        Map<String, Long> byAgeBucket = new LinkedHashMap<>();
+        AGE_BUCKETS.forEach(bucket -> byAgeBucket.put(bucket, 0L));
+        // общее число - сумма групп, отдельный count(*) не нужен
+        long total = 0;
+        for (UserRepository.GroupCount group : userRepository.countByAgeBucket()) {
+            byAgeBucket.put(group.getBucket(), group.getCount());
+            total += group.getCount();
+        }
+
+        Map<String, Long> byCreationDay = new LinkedHashMap<>();
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            byCreationDay.put(day.toString(), 0L);
+        }
+        for (UserRepository.GroupCount group : userRepository.countByCreationDay(firstDay.atStartOfDay())) {
+            byCreationDay.put(group.getBucket(), group.getCount());
+        }
+
+        log.debug("Статистика пользователей рассчитана: {}, {}",
+                kv("total", total), kv("durationMs", (System.nanoTime() - started) / 1_000_000));
+
+        return UserStats.builder()
+                .total(total)
+                .byAgeBucket(byAgeBucket)
+                .byCreationDay(byCreationDay)
+                .computedAt(LocalDateTime.now(clock))
+                .build();
+    }
+}
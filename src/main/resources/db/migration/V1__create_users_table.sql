@@ -0,0 +1,11 @@
+-- Таблица пользователей в том виде, в котором ее создавал Hibernate по сущности User
+CREATE TABLE IF NOT EXISTS users
+(
+    id         BIGSERIAL    PRIMARY KEY,
+    name       VARCHAR(100) NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    age        INTEGER,
+    created_at TIMESTAMP,
+    version    BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
@@ -0,0 +1,13 @@
+-- Схемы, созданные Hibernate до версии записи, принимаются за V1 без колонки version
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Уникальность email без учета регистра
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
+
+-- Keyset-пагинация и фильтры списка по дате создания и возрасту
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_age_id ON users (age, id);
+
+-- Поиск по части имени: findByNameContainingIgnoreCase строит upper(name) LIKE upper(?)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (upper(name) gin_trgm_ops);
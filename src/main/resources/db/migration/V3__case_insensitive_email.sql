@@ -0,0 +1,22 @@
+-- Уникальность email обеспечивается только индексом ux_users_email_lower из V2:
+-- поиск по lower(email) использует его, а регистрозависимое ограничение лишь
+-- замедляет вставку. Удаляется любое уникальное ограничение только по email,
+-- в том числе созданное Hibernate со сгенерированным именем
+DO
+$$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT con.conname
+        FROM pg_constraint con
+                 JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+        WHERE con.conrelid = 'users'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname = 'email'
+        LOOP
+            EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', constraint_name);
+        END LOOP;
+END
+$$;
@@ -0,0 +1,4 @@
+-- Поиск по началу email: lower(email) LIKE 'prefix%'.
+-- Уникальный индекс ux_users_email_lower использует правила сортировки БД
+-- и для LIKE не подходит, text_pattern_ops сравнивает посимвольно
+CREATE INDEX IF NOT EXISTS idx_users_email_lower_prefix ON users (lower(email) text_pattern_ops);
@@ -0,0 +1,61 @@
+package com.aston;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Время старта сервиса в профиле fast-start
+ *
+ * Контекст поднимается целиком, как в тренировочном запуске CDS, без БД, Kafka,
+ * Eureka и config server. Порог рассчитан на медленные CI-агенты и ловит
+ * возврат к жадной инициализации, а не колебания в пределах секунд
+ */
+@Slf4j
+class FastStartupTest {
+
+    private static final Duration STARTUP_BUDGET = Duration.ofSeconds(60);
+
+    @Test
+    @DisplayName("Сервис стартует в профиле fast-start с ленивой инициализацией")
+    void fastStartProfile_ShouldStartWithinBudget() {
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .profiles("fast-start", "cds-training")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("testClassesExcludeFilter", new TestClassesExcludeFilter()))
+                .run()) {
+            Duration startup = Duration.ofNanos(System.nanoTime() - started);
+            log.info("Время старта в профиле fast-start: {} мс", startup.toMillis());
+
+            assertThat(startup).isLessThan(STARTUP_BUDGET);
+            // контроллеры и springdoc не создаются до первого запроса
+            assertThat(context.getBeanFactory().containsSingleton("userController")).isFalse();
+            assertThat(context.containsBeanDefinition("openApiResource")).isFalse();
+            // фоновые бины создаются сразу, несмотря на ленивую инициализацию
+            assertThat(context.getBeanFactory().containsSingleton("userSnapshotRefresher")).isTrue();
+        }
+    }
+
+    /**
+     * Не подхватывать сканированием конфигурации из тестовых классов
+     */
+    private static final class TestClassesExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory)
+                throws IOException {
+            return metadataReader.getResource().getURL().getPath().contains("/test-classes/");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.aston;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Smoke-тест нативного образа: mvn -Pnative verify
+ *
+ * Запускает собранный файл target/user-service против PostgreSQL в Testcontainers,
+ * ждет готовности по /actuator/health/readiness и проверяет время старта и RSS процесса.
+ * Kafka, Eureka и config server не поднимаются: сервис стартует и без них.
+ * Без собранного образа или без Docker тест пропускается до запуска контейнера
+ */
+@Slf4j
+@DisplayName("Smoke-тест нативного образа")
+class NativeImageSmokeIT {
+
+    private static final Duration STARTUP_BUDGET = Duration.ofSeconds(3);
+    private static final long RSS_BUDGET_KB = 256 * 1024;
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(60);
+
+    @Test
+    @DisplayName("Нативный образ стартует быстро и занимает мало памяти")
+    void nativeBinary_ShouldStartWithinBudget() throws Exception {
+        Path binary = Paths.get(System.getProperty("native.binary", "target/user-service"));
+        assumeTrue(Files.isExecutable(binary), "Нативный образ не собран: mvn -Pnative package");
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker недоступен");
+
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withDatabaseName("users")
+                .withUsername("test")
+                .withPassword("test")) {
+            postgres.start();
+            runBinary(binary, postgres);
+        }
+    }
+
+    private static void runBinary(Path binary, PostgreSQLContainer<?> postgres) throws Exception {
+        int port = freePort();
+        Path logFile = binary.resolveSibling("native-smoke.log");
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(List.of(
+                binary.toString(),
+                "--server.port=" + port,
+                "--grpc.server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.cloud.config.enabled=false",
+                "--eureka.client.enabled=false",
+                "--spring.kafka.bootstrap-servers=localhost:9092",
+                "--spring.kafka.admin.properties.default.api.timeout.ms=1000",
+                "--kafka.topics.user-events=user-events"))
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        try {
+            awaitReady(process, port);
+            Duration startup = Duration.ofNanos(System.nanoTime() - started);
+            long rssKb = residentSetSizeKb(process.pid());
+            log.info("Нативный образ: старт {} мс, RSS {} МБ", startup.toMillis(), rssKb / 1024);
+
+            assertThat(startup).isLessThan(STARTUP_BUDGET);
+            assertThat(rssKb).isLessThan(RSS_BUDGET_KB);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static void awaitReady(Process process, int port) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertThat(process.isAlive()).as("процесс нативного образа завершился").isTrue();
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // сервер еще не слушает порт
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Нативный образ не стал готов за " + READY_TIMEOUT);
+    }
+
+    /**
+     * RSS процесса из /proc; на системах без /proc тест не проверяет память
+     */
+    private static long residentSetSizeKb(long pid) throws IOException {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        assumeTrue(Files.exists(status), "RSS доступен только в Linux");
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
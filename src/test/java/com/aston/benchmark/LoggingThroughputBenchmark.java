@@ -0,0 +1,130 @@
+package com.aston.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.aston.cache.UserCache;
+import com.aston.cache.UserSnapshotStore;
+import com.aston.dto.UserRequest;
+import com.aston.dto.UserResource;
+import com.aston.entity.User;
+import com.aston.logging.LogSampler;
+import com.aston.logging.LogSamplingProperties;
+import com.aston.repository.UserRepository;
+import com.aston.service.KafkaEventService;
+import com.aston.service.UserService;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Пропускная способность создания пользователя при включенном логировании
+ *
+ * Сравнивает запись каждого события (rate = 1) с сэмплированием (rate = 100)
+ * при асинхронном JSON-аппендере. Запуск: main-метод из тестового classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingThroughputBenchmark {
+
+    @Param({"1", "100"})
+    private int sampleRate;
+
+    private UserService userService;
+    private UserRequest request;
+    private AsyncAppender asyncAppender;
+
+    @Setup
+    public void setUp() {
+        configureAsyncJsonLogging();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        KafkaEventService kafkaEventService = mock(KafkaEventService.class);
+
+        User saved = User.builder()
+                .id(1L)
+                .name("Benchmark User")
+                .email("benchmark@example.com")
+                .age(30)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(saved);
+
+        LogSamplingProperties properties = new LogSamplingProperties();
+        properties.getRates().put("user.create", sampleRate);
+
+        userService = new UserService(userRepository, kafkaEventService, new LogSampler(properties),
+                new UserSnapshotStore(100), UserCache.NONE);
+        request = UserRequest.builder()
+                .name("Benchmark User")
+                .email("benchmark@example.com")
+                .age(30)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        asyncAppender.stop();
+    }
+
+    @Benchmark
+    public UserResource createUser() {
+        return userService.createUser(request);
+    }
+
+    private void configureAsyncJsonLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(0);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(sink);
+        asyncAppender.start();
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(asyncAppender);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoggingThroughputBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
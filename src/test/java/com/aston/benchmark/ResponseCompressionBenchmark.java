@@ -0,0 +1,152 @@
+package com.aston.benchmark;
+
+import com.aston.dto.UserResource;
+import com.aston.dto.UserResourceCollection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.Http2;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Размер и задержка ответа со списком пользователей с gzip и без него
+ *
+ * Поднимает встроенный Tomcat с настройками сжатия и HTTP/2 из application.yml
+ * и запрашивает HAL-список по h2c. Размер ответа на проводе печатается при запуске,
+ * задержка включает распаковку на клиенте. Запуск: main-метод из тестового classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private WebServer server;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        byte[] payload = halPayload(size);
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        Compression compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMinResponseSize(DataSize.ofKilobytes(2));
+        compression.setMimeTypes(new String[]{"application/json", "application/hal+json"});
+        factory.setCompression(compression);
+        Http2 http2 = new Http2();
+        http2.setEnabled(true);
+        factory.setHttp2(http2);
+
+        server = factory.getWebServer(context -> context.addServlet("users", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/hal+json");
+                resp.getOutputStream().write(payload);
+            }
+        }).addMapping("/api/v1/users"));
+        server.start();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + ((TomcatWebServer) server).getPort() + "/api/v1/users"))
+                .header("Accept-Encoding", encoding)
+                .GET()
+                .build();
+
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%n%s, %s, %d пользователей: %d байт на проводе, JSON %d байт%n",
+                response.version(), encoding, size, response.body().length, payload.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int listUsers() throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        boolean gzipped = response.headers().firstValue("Content-Encoding").filter("gzip"::equals).isPresent();
+        if (!gzipped) {
+            return response.body().length;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return in.readAllBytes().length;
+        }
+    }
+
+    private static byte[] halPayload(int size) throws Exception {
+        ObjectMapper halMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jackson2HalModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        List<EntityModel<UserResource>> resources = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            EntityModel<UserResource> resource = EntityModel.of(UserResource.builder()
+                    .id(id)
+                    .name("Пользователь " + id)
+                    .email("user" + id + "@example.com")
+                    .age(30)
+                    .createdAt(LocalDateTime.of(2026, 1, 1, 10, 0, 0))
+                    .build());
+            String href = "http://localhost:8081/api/v1/users/" + id;
+            resource.add(Link.of(href).withSelfRel());
+            resource.add(Link.of(href).withRel("update"));
+            resource.add(Link.of(href).withRel("delete"));
+            resources.add(resource);
+        }
+        UserResourceCollection collection = new UserResourceCollection(resources);
+        collection.add(Link.of("http://localhost:8081/api/v1/users").withSelfRel());
+        return halMapper.writeValueAsBytes(collection);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ResponseCompressionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,151 @@
+package com.aston.benchmark;
+
+import com.aston.dto.CompactUser;
+import com.aston.dto.CompactUserPage;
+import com.aston.dto.UserResource;
+import com.aston.dto.UserResourceCollection;
+import com.aston.entity.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выделение памяти на одного пользователя в ответе со списком
+ *
+ * Сравнивает HAL-список из сущностей, прежний компактный путь
+ * User -> UserResource (через билдер) -> CompactUser и новый путь, где CompactUser
+ * строится прямо из значений строки, как в JPQL-проекции streamAllCompact.
+ * Ответ пишется в пустой поток, поэтому учитываются только объекты модели и сериализации.
+ * Загрузка сущностей Hibernate (EntityEntry, снимок состояния для dirty checking)
+ * здесь не измеряется: проекция экономит ее дополнительно.
+ * Запуск: main-метод из тестового classpath с профилировщиком GC;
+ * gc.alloc.rate.norm - байт на пользователя. Для разбивки по типам объектов:
+ * org.openjdk.jmh.Main UserListAllocationBenchmark -prof jfr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(UserListAllocationBenchmark.USERS)
+public class UserListAllocationBenchmark {
+
+    static final int USERS = 100;
+
+    private static final String BASE_URL = "http://localhost:8081/api/v1/users/";
+
+    private List<User> entities;
+    private List<Object[]> rows;
+    private ObjectWriter halWriter;
+    private ObjectWriter compactWriter;
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() {
+        entities = new ArrayList<>(USERS);
+        rows = new ArrayList<>(USERS);
+        for (long id = 1; id <= USERS; id++) {
+            User user = User.builder()
+                    .id(id)
+                    .name("Пользователь " + id)
+                    .email("user" + id + "@example.com")
+                    .age(30)
+                    .createdAt(LocalDateTime.of(2026, 1, 1, 10, 0, 0))
+                    .build();
+            entities.add(user);
+            rows.add(new Object[]{user.getId(), user.getName(), user.getEmail(), user.getAge(), user.getCreatedAt()});
+        }
+
+        ObjectMapper halMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jackson2HalModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        halWriter = halMapper.writerFor(UserResourceCollection.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        compactWriter = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerFor(CompactUserPage.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Benchmark
+    public void halFromEntities() throws IOException {
+        List<EntityModel<UserResource>> resources = new ArrayList<>(entities.size());
+        for (User user : entities) {
+            EntityModel<UserResource> resource = EntityModel.of(new UserResource(user.getId(), user.getName(),
+                    user.getEmail(), user.getAge(), user.getCreatedAt(), null));
+            String href = BASE_URL + user.getId();
+            resource.add(Link.of(href).withSelfRel());
+            resource.add(Link.of(href).withRel("update"));
+            resource.add(Link.of(href).withRel("delete"));
+            resources.add(resource);
+        }
+        halWriter.writeValue(sink, new UserResourceCollection(resources));
+    }
+
+    /**
+     * Прежний путь: сервис возвращал список UserResource, контроллер переводил его в CompactUser
+     */
+    @Benchmark
+    public void compactViaResource() throws IOException {
+        List<UserResource> resources = new ArrayList<>(entities.size());
+        for (User user : entities) {
+            resources.add(UserResource.builder()
+                    .id(user.getId())
+                    .name(user.getName())
+                    .email(user.getEmail())
+                    .age(user.getAge())
+                    .createdAt(user.getCreatedAt())
+                    .build());
+        }
+        List<CompactUser> items = new ArrayList<>(resources.size());
+        for (UserResource resource : resources) {
+            items.add(CompactUser.from(resource));
+        }
+        compactWriter.writeValue(sink, new CompactUserPage(items, null));
+    }
+
+    @Benchmark
+    public void compactProjection() throws IOException {
+        List<CompactUser> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            items.add(new CompactUser((Long) row[0], (String) row[1], (String) row[2],
+                    (Integer) row[3], (LocalDateTime) row[4]));
+        }
+        compactWriter.writeValue(sink, new CompactUserPage(items, null));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserListAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,177 @@
+package com.aston.benchmark;
+
+import com.aston.controller.CompactUserMessageConverter;
+import com.aston.controller.UserController;
+import com.aston.dto.CompactUser;
+import com.aston.dto.UserResource;
+import com.aston.grpc.GrpcServerProperties;
+import com.aston.grpc.UserGrpcServer;
+import com.aston.grpc.UserGrpcService;
+import com.aston.grpc.proto.GetUserRequest;
+import com.aston.grpc.proto.User;
+import com.aston.grpc.proto.UserServiceGrpc;
+import com.aston.handler.GlobalExceptionHandler;
+import com.aston.logging.LogSampler;
+import com.aston.logging.LogSamplingProperties;
+import com.aston.service.IdempotencyService;
+import com.aston.service.UserService;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.hateoas.HypermediaAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import javax.validation.Validation;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Задержка получения пользователя по ID: REST (HAL и компактный JSON) против gRPC
+ *
+ * Поднимает UserController во встроенном Tomcat и gRPC-сервер на отдельном порту
+ * поверх одного UserService-заглушки, так что разница определяется только протоколом
+ * и сериализацией. Режим SampleTime выводит перцентили, включая p0.99.
+ * Запуск: main-метод из тестового classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class UserLookupLatencyBenchmark {
+
+    private ServletWebServerApplicationContext restContext;
+    private UserGrpcServer grpcServer;
+    private ManagedChannel channel;
+    private UserServiceGrpc.UserServiceBlockingStub stub;
+    private HttpClient httpClient;
+    private HttpRequest halRequest;
+    private HttpRequest compactRequest;
+    private GetUserRequest grpcRequest;
+
+    @Setup
+    public void setUp() {
+        UserService userService = mock(UserService.class);
+        when(userService.getUserById(anyLong())).thenAnswer(invocation -> UserResource.builder()
+                .id(invocation.getArgument(0))
+                .name("Benchmark User")
+                .email("benchmark@example.com")
+                .age(30)
+                .createdAt(LocalDateTime.of(2026, 1, 1, 10, 0, 0))
+                .build());
+
+        RestApplication.userService = userService;
+        restContext = (ServletWebServerApplicationContext) new SpringApplicationBuilder(RestApplication.class)
+                .properties("server.port=0", "spring.config.name=benchmark", "spring.main.banner-mode=off",
+                        "spring.cloud.config.enabled=false", "spring.cloud.config.import-check.enabled=false",
+                        "logging.level.root=warn")
+                .run();
+        String baseUrl = "http://localhost:" + restContext.getWebServer().getPort() + "/api/v1/users/1";
+
+        GrpcServerProperties properties = new GrpcServerProperties();
+        properties.setPort(0);
+        grpcServer = new UserGrpcServer(properties, new UserGrpcService(userService,
+                Validation.buildDefaultValidatorFactory().getValidator(), properties.getListPageSize()));
+        grpcServer.start();
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        halRequest = HttpRequest.newBuilder(URI.create(baseUrl)).header("Accept", "application/hal+json").build();
+        compactRequest = HttpRequest.newBuilder(URI.create(baseUrl)).header("Accept", CompactUser.MEDIA_TYPE).build();
+
+        channel = NettyChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        stub = UserServiceGrpc.newBlockingStub(channel);
+        grpcRequest = GetUserRequest.newBuilder().setId(1L).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.shutdownNow();
+        grpcServer.stop();
+        restContext.close();
+    }
+
+    @Benchmark
+    public String restHal() throws Exception {
+        return httpClient.send(halRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public String restCompact() throws Exception {
+        return httpClient.send(compactRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public User grpc() {
+        return stub.getUser(grpcRequest);
+    }
+
+    /**
+     * Минимальный веб-контекст только с UserController, без БД, Kafka и Eureka
+     */
+    @Configuration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            HypermediaAutoConfiguration.class,
+            ValidationAutoConfiguration.class
+    })
+    @Import({UserController.class, GlobalExceptionHandler.class, CompactUserMessageConverter.class})
+    static class RestApplication {
+
+        static UserService userService;
+
+        @Bean
+        public UserService userService() {
+            return userService;
+        }
+
+        @Bean
+        public IdempotencyService idempotencyService() {
+            return new IdempotencyService(Duration.ofHours(1), Duration.ofSeconds(30), 100, Clock.systemUTC());
+        }
+
+        @Bean
+        public LogSampler logSampler() {
+            return new LogSampler(new LogSamplingProperties());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserLookupLatencyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
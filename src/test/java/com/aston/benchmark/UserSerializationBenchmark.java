@@ -0,0 +1,118 @@
+package com.aston.benchmark;
+
+import com.aston.dto.CompactUser;
+import com.aston.dto.CompactUserPage;
+import com.aston.dto.UserResource;
+import com.aston.dto.UserResourceCollection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Пропускная способность сериализации списка пользователей
+ *
+ * Сравнивает HAL-ответ со ссылками, который собирает UserController,
+ * с компактным представлением в JSON и CBOR через заранее построенный ObjectWriter.
+ * Запуск: main-метод из тестового classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    private static final String BASE_URL = "http://localhost:8080/api/v1/users/";
+
+    @Param({"1", "100"})
+    private int size;
+
+    private List<UserResource> users;
+    private ObjectMapper halMapper;
+    private ObjectWriter compactWriter;
+    private ObjectWriter cborWriter;
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            users.add(UserResource.builder()
+                    .id(id)
+                    .name("Пользователь " + id)
+                    .email("user" + id + "@example.com")
+                    .age(30)
+                    .createdAt(LocalDateTime.of(2026, 1, 1, 10, 0, 0))
+                    .build());
+        }
+
+        halMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jackson2HalModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        compactWriter = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerFor(CompactUserPage.class);
+        cborWriter = Jackson2ObjectMapperBuilder.cbor().build().writerFor(CompactUserPage.class);
+    }
+
+    @Benchmark
+    public byte[] hal() throws JsonProcessingException {
+        List<EntityModel<UserResource>> resources = users.stream()
+                .map(user -> {
+                    EntityModel<UserResource> resource = EntityModel.of(user);
+                    String href = BASE_URL + user.getId();
+                    resource.add(Link.of(href).withSelfRel());
+                    resource.add(Link.of(href).withRel("update"));
+                    resource.add(Link.of(href).withRel("delete"));
+                    return resource;
+                })
+                .collect(Collectors.toList());
+        UserResourceCollection collection = new UserResourceCollection(resources);
+        collection.add(Link.of(BASE_URL).withSelfRel());
+        return halMapper.writeValueAsBytes(collection);
+    }
+
+    @Benchmark
+    public byte[] compact() throws JsonProcessingException {
+        return compactWriter.writeValueAsBytes(new CompactUserPage(
+                users.stream().map(CompactUser::from).collect(Collectors.toList()), null));
+    }
+
+    @Benchmark
+    public byte[] cbor() throws JsonProcessingException {
+        return cborWriter.writeValueAsBytes(new CompactUserPage(
+                users.stream().map(CompactUser::from).collect(Collectors.toList()), null));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserSerializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты RedisSharedUserCache")
+class RedisSharedUserCacheTest {
+
+    private ServerSocket silentRedis;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+
+    /**
+     * Сервер принимает соединения, но не отвечает: так выглядит зависший Redis
+     */
+    @BeforeEach
+    void startSilentRedis() throws IOException {
+        silentRedis = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (!silentRedis.isClosed()) {
+                    accepted.add(silentRedis.accept());
+                }
+            } catch (IOException e) {
+                // сервер закрыт
+            }
+        }, "silent-redis");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterEach
+    void stopSilentRedis() throws IOException {
+        silentRedis.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Зависший Redis с таймаутами из application.yml дает быстрый промах")
+    void get_HungRedis_ShouldMissWithinTimeout() {
+        new ApplicationContextRunner()
+                .withInitializer(new ConfigDataApplicationContextInitializer())
+                .withConfiguration(AutoConfigurations.of(RedisAutoConfiguration.class))
+                .withPropertyValues(
+                        "spring.config.import=",
+                        "spring.redis.host=localhost",
+                        "spring.redis.port=" + silentRedis.getLocalPort())
+                .run(context -> {
+                    RedisSharedUserCache cache = new RedisSharedUserCache(context.getBean(StringRedisTemplate.class),
+                            new ObjectMapper().registerModule(new JavaTimeModule()), "user:", Duration.ofMinutes(10));
+
+                    // первое обращение включает запуск клиента Lettuce
+                    assertThat(cache.get(2L)).isEmpty();
+
+                    long started = System.nanoTime();
+                    assertThat(cache.get(1L)).isEmpty();
+                    cache.put(UserResource.builder().id(1L).name("Пользователь").email("user@example.com").build());
+                    Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+                    assertThat(elapsed).isLessThan(Duration.ofSeconds(1));
+                });
+    }
+}
@@ -0,0 +1,157 @@
+package com.aston.cache;
+
+import com.aston.dto.UserEvent;
+import com.aston.dto.UserResource;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты TwoLevelUserCache")
+class TwoLevelUserCacheTest {
+
+    private MutableClock clock;
+    private InMemorySharedUserCache sharedCache;
+    private TwoLevelUserCache instanceA;
+    private TwoLevelUserCache instanceB;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+        sharedCache = new InMemorySharedUserCache();
+        instanceA = new TwoLevelUserCache(new NearUserCache(100, Duration.ofSeconds(30), clock), sharedCache);
+        instanceB = new TwoLevelUserCache(new NearUserCache(100, Duration.ofSeconds(30), clock), sharedCache);
+    }
+
+    @Test
+    @DisplayName("Промах ближнего кэша читается из общего и заполняет ближний")
+    void get_NearMiss_ShouldReadSharedAndFillNear() {
+        instanceA.put(user(1L, "user1@example.com"));
+
+        assertThat(instanceB.get(1L)).map(UserResource::getEmail).contains("user1@example.com");
+
+        sharedCache.store.clear();
+        assertThat(instanceB.get(1L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Запись ближнего кэша истекает по TTL")
+    void get_AfterNearTtl_ShouldFallBackToShared() {
+        instanceA.put(user(1L, "user1@example.com"));
+        sharedCache.store.clear();
+
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(instanceA.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Событие изменения очищает кэши всех экземпляров")
+    void invalidationEvent_ShouldEvictEveryInstance() {
+        instanceA.put(user(1L, "user1@example.com"));
+        instanceB.get(1L);
+        UserEvent event = UserEvent.builder()
+                .eventType(UserEvent.EventType.USER_UPDATED)
+                .userId(1L)
+                .build();
+
+        new UserCacheInvalidationListener(instanceA).onEvent(new ConsumerRecord<>("user-events", 0, 0L, "1", event));
+        new UserCacheInvalidationListener(instanceB).onEvent(new ConsumerRecord<>("user-events", 0, 0L, "1", event));
+
+        assertThat(instanceA.get(1L)).isEmpty();
+        assertThat(instanceB.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Tombstone очищает кэш по ключу сообщения")
+    void invalidationTombstone_ShouldEvictByKey() {
+        instanceA.put(user(1L, "user1@example.com"));
+
+        new UserCacheInvalidationListener(instanceA).onEvent(new ConsumerRecord<>("user-events", 0, 0L, "1", null));
+
+        assertThat(instanceA.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Изменение данных вызывающим кодом не меняет кэш")
+    void get_ShouldReturnCopy() {
+        UserResource original = user(1L, "user1@example.com");
+        instanceA.put(original);
+        original.setEmail("changed@example.com");
+
+        instanceA.get(1L).ifPresent(cached -> cached.setEmail("other@example.com"));
+
+        assertThat(instanceA.get(1L)).map(UserResource::getEmail).contains("user1@example.com");
+    }
+
+    private static UserResource user(Long id, String email) {
+        return UserResource.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email(email)
+                .age(30)
+                .build();
+    }
+
+    /**
+     * Общий кэш в памяти вместо Redis
+     */
+    private static final class InMemorySharedUserCache implements SharedUserCache {
+
+        private final Map<Long, UserResource> store = new HashMap<>();
+
+        @Override
+        public Optional<UserResource> get(Long id) {
+            return Optional.ofNullable(store.get(id));
+        }
+
+        @Override
+        public void put(UserResource resource) {
+            store.put(resource.getId(), resource);
+        }
+
+        @Override
+        public void evict(Long id) {
+            store.remove(id);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
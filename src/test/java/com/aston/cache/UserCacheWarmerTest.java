@@ -0,0 +1,124 @@
+package com.aston.cache;
+
+import com.aston.dto.UserPage;
+import com.aston.dto.UserResource;
+import com.aston.service.UserService;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Тесты UserCacheWarmer")
+class UserCacheWarmerTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final UserCache userCache = mock(UserCache.class);
+
+    @Test
+    @DisplayName("Прогрев загружает страницы новых пользователей в кэш")
+    void warmUp_ShouldLoadAllPages() {
+        UserCacheWarmer warmer = warmer(properties(10));
+        when(userService.findUsers(argThat(filter -> filter != null && filter.getCursor() == null
+                && "createdAt".equals(filter.getSort()) && "desc".equals(filter.getDirection()))))
+                .thenReturn(new UserPage(List.of(user(3L), user(2L)), "page-2"));
+        when(userService.findUsers(argThat(filter -> filter != null && "page-2".equals(filter.getCursor()))))
+                .thenReturn(new UserPage(List.of(user(1L)), null));
+
+        assertThat(warmer.isReady()).isFalse();
+        warmer.warmUp();
+
+        assertThat(warmer.getStatus()).isEqualTo(UserCacheWarmer.Status.COMPLETED);
+        assertThat(warmer.getLoaded()).isEqualTo(3);
+        verify(userCache).put(argThat(user -> user.getId() == 1L));
+        assertThat(new UserCacheWarmupHealthIndicator(warmer).health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    @DisplayName("Готовность наступает по порогу, а лимит запросов вызывает повтор")
+    void warmUp_ThresholdReached_ShouldBeReadyBeforeCompletion() {
+        UserCacheWarmupProperties properties = properties(4);
+        properties.setReadyThreshold(0.5);
+        properties.setRetryBackoff(Duration.ZERO);
+        UserCacheWarmer warmer = warmer(properties);
+        when(userService.findUsers(argThat(filter -> filter != null && filter.getCursor() == null)))
+                .thenThrow(RequestNotPermitted.class)
+                .thenAnswer(invocation -> {
+                    assertThat(warmer.isReady()).isFalse();
+                    return new UserPage(List.of(user(4L), user(3L)), "page-2");
+                });
+        when(userService.findUsers(argThat(filter -> filter != null && "page-2".equals(filter.getCursor()))))
+                .thenAnswer(invocation -> {
+                    assertThat(warmer.isReady()).isTrue();
+                    assertThat(new UserCacheWarmupHealthIndicator(warmer).health().getStatus()).isEqualTo(Status.UP);
+                    return new UserPage(List.of(user(2L), user(1L), user(0L)), "page-3");
+                });
+
+        warmer.warmUp();
+
+        assertThat(warmer.getStatus()).isEqualTo(UserCacheWarmer.Status.COMPLETED);
+        assertThat(warmer.getLoaded()).isEqualTo(4);
+        verify(userCache, times(4)).put(any());
+        verify(userCache, never()).put(argThat(user -> user.getId() == 0L));
+    }
+
+    @Test
+    @DisplayName("Отключенный прогрев не блокирует готовность")
+    void disabled_ShouldBeReady() {
+        UserCacheWarmupProperties properties = properties(10);
+        properties.setEnabled(false);
+        UserCacheWarmer warmer = warmer(properties);
+
+        warmer.start();
+
+        assertThat(warmer.isReady()).isTrue();
+        assertThat(new UserCacheWarmupHealthIndicator(warmer).health().getStatus()).isEqualTo(Status.UP);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Без кэша чтения прогрев не выполняется и не задерживает готовность")
+    void noReadCache_ShouldBeReady() {
+        UserCacheWarmer warmer = new UserCacheWarmer(userService, UserCache.NONE,
+                new UserCacheProperties(), properties(10));
+
+        warmer.start();
+
+        assertThat(warmer.getStatus()).isEqualTo(UserCacheWarmer.Status.DISABLED);
+        assertThat(warmer.getTarget()).isZero();
+        assertThat(warmer.isReady()).isTrue();
+        verifyNoInteractions(userService);
+    }
+
+    private UserCacheWarmer warmer(UserCacheWarmupProperties properties) {
+        return new UserCacheWarmer(userService, userCache, new UserCacheProperties(), properties);
+    }
+
+    private static UserCacheWarmupProperties properties(int maxUsers) {
+        UserCacheWarmupProperties properties = new UserCacheWarmupProperties();
+        properties.setMaxUsers(maxUsers);
+        properties.setBatchSize(2);
+        return properties;
+    }
+
+    private static UserResource user(Long id) {
+        return UserResource.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@example.com")
+                .age(30)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.aston.cache;
+
+import com.aston.dto.UserResource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты UserSnapshotStore")
+class UserSnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    @DisplayName("Снимок возвращается с возрастом данных")
+    void getStale_ShouldReturnCopyWithAge() {
+        MutableClock clock = new MutableClock(NOW);
+        UserSnapshotStore store = new UserSnapshotStore(10, clock);
+
+        store.put(user(1L));
+        clock.advance(Duration.ofSeconds(42));
+
+        Optional<UserResource> stale = store.getStale(1L);
+
+        assertThat(stale).isPresent();
+        assertThat(stale.get().getEmail()).isEqualTo("user1@example.com");
+        assertThat(stale.get().getStaleAgeSeconds()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Вытеснение давно не использованных записей")
+    void put_OverCapacity_ShouldEvictLeastRecentlyUsed() {
+        UserSnapshotStore store = new UserSnapshotStore(2, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        store.put(user(1L));
+        store.put(user(2L));
+        store.getStale(1L);
+        store.put(user(3L));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getStale(2L)).isEmpty();
+        assertThat(store.recentIds(10)).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @DisplayName("Удаление снимка")
+    void evict_ShouldRemoveSnapshot() {
+        UserSnapshotStore store = new UserSnapshotStore(10, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        store.put(user(1L));
+        store.evict(1L);
+
+        assertThat(store.getStale(1L)).isEmpty();
+    }
+
+    private static UserResource user(Long id) {
+        return UserResource.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@example.com")
+                .age(30)
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.aston.cdc;
+
+import com.aston.dto.UserEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты PgOutputDecoder")
+class PgOutputDecoderTest {
+
+    private static final int USERS_OID = 16384;
+    private static final String[] COLUMNS = {"id", "name", "email", "age", "created_at", "version"};
+
+    @Test
+    @DisplayName("Разбор транзакции с вставкой, изменением и удалением")
+    void decode_Transaction_ShouldProduceUserEvents() throws IOException {
+        PgOutputDecoder decoder = new PgOutputDecoder();
+        RecordingHandler handler = new RecordingHandler();
+
+        decoder.decode(begin(), handler);
+        decoder.decode(relation(), handler);
+        decoder.decode(insert("1", "Иван", "ivan@example.com", "30", "2026-01-01 10:00:00.123", "0"), handler);
+        decoder.decode(update("1", "Иван", "ivan@example.com", null, "2026-01-01 10:00:00.123", "1"), handler);
+        decoder.decode(delete("1"), handler);
+        decoder.decode(commit(0x1234L), handler);
+
+        assertThat(handler.events).hasSize(3);
+        UserEvent created = handler.events.get(0);
+        assertThat(created.getEventType()).isEqualTo(UserEvent.EventType.USER_CREATED);
+        assertThat(created.getName()).isEqualTo("Иван");
+        assertThat(created.getAge()).isEqualTo(30);
+        assertThat(created.getCreatedAt()).isEqualTo(LocalDateTime.of(2026, 1, 1, 10, 0, 0, 123_000_000));
+        assertThat(created.getVersion()).isZero();
+
+        UserEvent updated = handler.events.get(1);
+        assertThat(updated.getEventType()).isEqualTo(UserEvent.EventType.USER_UPDATED);
+        assertThat(updated.getAge()).isNull();
+        assertThat(updated.getVersion()).isEqualTo(1L);
+
+        UserEvent deleted = handler.events.get(2);
+        assertThat(deleted.getEventType()).isEqualTo(UserEvent.EventType.USER_DELETED);
+        assertThat(deleted.getUserId()).isEqualTo(1L);
+        assertThat(handler.commitLsn).isEqualTo(0x1234L);
+    }
+
+    private static ByteBuffer begin() throws IOException {
+        return message('B', out -> {
+            out.writeLong(0x1234L);
+            out.writeLong(0L);
+            out.writeInt(42);
+        });
+    }
+
+    private static ByteBuffer commit(long endLsn) throws IOException {
+        return message('C', out -> {
+            out.writeByte(0);
+            out.writeLong(endLsn - 1);
+            out.writeLong(endLsn);
+            out.writeLong(0L);
+        });
+    }
+
+    private static ByteBuffer relation() throws IOException {
+        return message('R', out -> {
+            out.writeInt(USERS_OID);
+            writeString(out, "public");
+            writeString(out, "users");
+            out.writeByte('d');
+            out.writeShort(COLUMNS.length);
+            for (String column : COLUMNS) {
+                out.writeByte(column.equals("id") ? 1 : 0);
+                writeString(out, column);
+                out.writeInt(25);
+                out.writeInt(-1);
+            }
+        });
+    }
+
+    private static ByteBuffer insert(String... values) throws IOException {
+        return message('I', out -> {
+            out.writeInt(USERS_OID);
+            out.writeByte('N');
+            writeTuple(out, values);
+        });
+    }
+
+    private static ByteBuffer update(String... values) throws IOException {
+        return message('U', out -> {
+            out.writeInt(USERS_OID);
+            out.writeByte('K');
+            writeTuple(out, values[0], null, null, null, null, null);
+            out.writeByte('N');
+            writeTuple(out, values);
+        });
+    }
+
+    private static ByteBuffer delete(String id) throws IOException {
+        return message('D', out -> {
+            out.writeInt(USERS_OID);
+            out.writeByte('K');
+            writeTuple(out, id, null, null, null, null, null);
+        });
+    }
+
+    private static void writeTuple(DataOutputStream out, String... values) throws IOException {
+        out.writeShort(values.length);
+        for (String value : values) {
+            if (value == null) {
+                out.writeByte('n');
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeByte('t');
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+        out.writeByte(0);
+    }
+
+    private static ByteBuffer message(char type, Body body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        body.write(out);
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final class RecordingHandler implements PgOutputDecoder.Handler {
+
+        private final List<UserEvent> events = new ArrayList<>();
+        private long commitLsn;
+
+        @Override
+        public void begin(long xid) {
+        }
+
+        @Override
+        public void change(RowChange change) {
+            events.add(UserChangeMapper.toEvent(change));
+        }
+
+        @Override
+        public void commit(long endLsn) {
+            commitLsn = endLsn;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.aston.cdc;
+
+import com.aston.dto.UserEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DisplayName("Интеграционные тесты UserCdcPublisher")
+class UserCdcPublisherIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("postgres", "-c", "wal_level=logical");
+
+    /**
+     * Локальная замена Kafka: события складываются в очередь
+     */
+    private final BlockingQueue<UserEvent> published = new LinkedBlockingQueue<>();
+
+    private UserCdcPublisher publisher;
+
+    @BeforeAll
+    static void createTable() throws SQLException {
+        execute("CREATE TABLE users ("
+                + "id BIGSERIAL PRIMARY KEY, "
+                + "name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(100) NOT NULL UNIQUE, "
+                + "age INTEGER, "
+                + "created_at TIMESTAMP, "
+                + "version BIGINT NOT NULL DEFAULT 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Изменения таблицы публикуются в порядке коммитов")
+    void changes_ShouldBePublishedInCommitOrder() throws Exception {
+        CdcProperties properties = new CdcProperties();
+        properties.setRetryBackoff(Duration.ofMillis(200));
+        publisher = new UserCdcPublisher(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(),
+                properties, published::addAll);
+        publisher.start();
+        awaitSlot(properties.getSlotName());
+
+        execute("INSERT INTO users (name, email, age, created_at) VALUES ('Иван', 'ivan@example.com', 30, now())");
+        execute("UPDATE users SET age = 31, version = version + 1 WHERE email = 'ivan@example.com'");
+        execute("DELETE FROM users WHERE email = 'ivan@example.com'");
+
+        List<UserEvent> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserEvent event = published.poll(10, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            events.add(event);
+        }
+
+        assertThat(events).extracting(UserEvent::getEventType).containsExactly(
+                UserEvent.EventType.USER_CREATED,
+                UserEvent.EventType.USER_UPDATED,
+                UserEvent.EventType.USER_DELETED);
+        assertThat(events.get(1).getAge()).isEqualTo(31);
+        assertThat(events.get(1).getVersion()).isEqualTo(1L);
+        assertThat(events).extracting(UserEvent::getUserId).containsOnly(events.get(0).getUserId());
+    }
+
+    private static void awaitSlot(String slotName) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            try (Connection connection = connection();
+                 Statement statement = connection.createStatement()) {
+                if (statement.executeQuery("SELECT 1 FROM pg_replication_slots WHERE slot_name = '"
+                        + slotName + "' AND active").next()) {
+                    return;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Слот репликации не активирован");
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = connection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Connection connection() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -1,9 +1,20 @@
 package com.aston.controller;
 
+import com.aston.dto.CompactUser;
+import com.aston.dto.CompactUserPage;
+import com.aston.dto.UserFilter;
+import com.aston.dto.UserPage;
 import com.aston.dto.UserRequest;
-import com.aston.dto.UserResponse;
+import com.aston.dto.UserResource;
+import com.aston.exception.UserException;
+import com.aston.logging.LogSampler;
+import com.aston.logging.LogSamplingProperties;
+import com.aston.service.IdempotencyService;
 import com.aston.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,19 +26,28 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -51,20 +71,32 @@ class UserControllerTest {
             userServiceMock = mock(UserService.class);
             return userServiceMock;
         }
+
+        @Bean
+        public IdempotencyService idempotencyService() {
+            return new IdempotencyService(Duration.ofHours(1), Duration.ofSeconds(30), 100, Clock.systemUTC());
+        }
+
+        @Bean
+        public LogSampler logSampler() {
+            return new LogSampler(new LogSamplingProperties());
+        }
     }
 
     private UserRequest testUserRequest;
-    private UserResponse testUserResponse;
+    private UserResource testUserResource;
 
     @BeforeEach
     void setUp() {
+        reset(userServiceMock);
+
         testUserRequest = UserRequest.builder()
                 .name("Тестовый пользователь")
                 .email("test@example.com")
                 .age(25)
                 .build();
 
-        testUserResponse = UserResponse.builder()
+        testUserResource = UserResource.builder()
                 .id(1L)
                 .name("Тестовый пользователь")
                 .email("test@example.com")
@@ -76,7 +108,7 @@ class UserControllerTest {
     @Test
     @DisplayName("Создание пользователя")
     void createUser_ShouldReturnCreated() throws Exception {
-        when(userServiceMock.createUser(any(UserRequest.class))).thenReturn(testUserResponse);
+        when(userServiceMock.createUser(any(UserRequest.class))).thenReturn(testUserResource);
 
         mockMvc.perform(post("/api/v1/users")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -88,10 +120,34 @@ class UserControllerTest {
         verify(userServiceMock).createUser(any(UserRequest.class));
     }
 
+    @Test
+    @DisplayName("Повтор создания с тем же Idempotency-Key не вызывает сервис повторно")
+    void createUser_SameIdempotencyKey_ShouldReplayResponse() throws Exception {
+        UserRequest request = UserRequest.builder()
+                .name("Идемпотентный пользователь")
+                .email("idempotent@example.com")
+                .age(30)
+                .build();
+        when(userServiceMock.createUser(argThat(r -> r != null && "idempotent@example.com".equals(r.getEmail()))))
+                .thenReturn(testUserResource);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/v1/users")
+                            .header("Idempotency-Key", "create-idempotent-user")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(1L));
+        }
+
+        verify(userServiceMock, times(1))
+                .createUser(argThat(r -> r != null && "idempotent@example.com".equals(r.getEmail())));
+    }
+
     @Test
     @DisplayName("Получение пользователя по ID")
     void getUserById_ShouldReturnUser() throws Exception {
-        when(userServiceMock.getUserById(anyLong())).thenReturn(testUserResponse);
+        when(userServiceMock.getUserById(anyLong())).thenReturn(testUserResource);
 
         mockMvc.perform(get("/api/v1/users/{id}", 1L))
                 .andExpect(status().isOk())
@@ -100,24 +156,162 @@ class UserControllerTest {
         verify(userServiceMock).getUserById(1L);
     }
 
+    @Test
+    @DisplayName("Компактное представление пользователя без ссылок")
+    void getUserById_CompactMediaType_ShouldReturnUserWithoutLinks() throws Exception {
+        when(userServiceMock.getUserById(anyLong())).thenReturn(testUserResource);
+
+        mockMvc.perform(get("/api/v1/users/{id}", 1L)
+                        .accept(CompactUser.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CompactUser.MEDIA_TYPE))
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.email").value("test@example.com"))
+                .andExpect(jsonPath("$._links").doesNotExist())
+                .andExpect(jsonPath("$.links").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Компактный список пользователей с курсором")
+    void getAllUsers_CompactMediaType_ShouldReturnItemsAndCursor() throws Exception {
+        when(userServiceMock.findUsersCompact(any(UserFilter.class)))
+                .thenReturn(new CompactUserPage(List.of(CompactUser.from(testUserResource)), "next-cursor"));
+
+        mockMvc.perform(get("/api/v1/users")
+                        .param("limit", "1")
+                        .accept(CompactUser.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].links").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+    }
+
+    @Test
+    @DisplayName("Пользователь в формате CBOR")
+    void getUserById_Cbor_ShouldReturnBinaryBody() throws Exception {
+        when(userServiceMock.getUserById(anyLong())).thenReturn(testUserResource);
+
+        byte[] body = mockMvc.perform(get("/api/v1/users/{id}", 1L)
+                        .accept(CompactUser.CBOR_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CompactUser.CBOR_MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode user = new CBORMapper().readTree(body);
+        assertThat(user.get("id").asLong()).isEqualTo(1L);
+        assertThat(user.get("email").asText()).isEqualTo("test@example.com");
+        assertThat(user.has("links")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ошибка для клиента CBOR возвращается в CBOR с исходным статусом")
+    void getUserById_CborNotFound_ShouldReturnBinaryError() throws Exception {
+        when(userServiceMock.getUserById(anyLong())).thenThrow(new UserException("Пользователь с ID 9 не найден"));
+
+        byte[] body = mockMvc.perform(get("/api/v1/users/{id}", 9L)
+                        .accept(CompactUser.CBOR_MEDIA_TYPE))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(CompactUser.CBOR_MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode error = new CBORMapper().readTree(body);
+        assertThat(error.get("status").asInt()).isEqualTo(400);
+        assertThat(error.get("message").asText()).isEqualTo("Пользователь с ID 9 не найден");
+    }
+
+    @Test
+    @DisplayName("Ошибка для клиента Smile возвращается в Smile с исходным статусом")
+    void getUserById_SmileNotFound_ShouldReturnBinaryError() throws Exception {
+        when(userServiceMock.getUserById(anyLong())).thenThrow(new UserException("Пользователь с ID 9 не найден"));
+
+        byte[] body = mockMvc.perform(get("/api/v1/users/{id}", 9L)
+                        .accept(CompactUser.SMILE_MEDIA_TYPE))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(CompactUser.SMILE_MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode error = new SmileMapper().readTree(body);
+        assertThat(error.get("status").asInt()).isEqualTo(400);
+        assertThat(error.get("message").asText()).isEqualTo("Пользователь с ID 9 не найден");
+    }
+
+    @Test
+    @DisplayName("Полный компактный список пишется потоком в том же формате, что и страница")
+    void getAllUsers_CompactWithoutFilter_ShouldStreamItems() throws Exception {
+        streamUsers(CompactUser.from(testUserResource), CompactUser.builder().id(2L).name("Второй").email("second@example.com").build());
+
+        mockMvc.perform(get("/api/v1/users")
+                        .accept(CompactUser.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].email").value("test@example.com"))
+                .andExpect(jsonPath("$.items[1].id").value(2L))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Тело запроса в CBOR не принимается")
+    void createUser_CborBody_ShouldReturnUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(CompactUser.CBOR_MEDIA_TYPE)
+                        .content(new CBORMapper().writeValueAsBytes(testUserRequest)))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(userServiceMock, never()).createUser(any(UserRequest.class));
+    }
+
+    @Test
+    @DisplayName("Список пользователей в формате Smile")
+    void getAllUsers_Smile_ShouldReturnBinaryBody() throws Exception {
+        streamUsers(CompactUser.from(testUserResource));
+
+        byte[] body = mockMvc.perform(get("/api/v1/users")
+                        .accept(CompactUser.SMILE_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CompactUser.SMILE_MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new SmileMapper().readTree(body);
+        assertThat(page.get("items")).hasSize(1);
+        assertThat(page.get("items").get(0).get("name").asText()).isEqualTo("Тестовый пользователь");
+    }
+
     @Test
     @DisplayName("Получение всех пользователей")
     void getAllUsers_ShouldReturnUsers() throws Exception {
-        List<UserResponse> users = Arrays.asList(testUserResponse);
+        List<UserResource> users = Arrays.asList(testUserResource);
         when(userServiceMock.getAllUsers()).thenReturn(users);
 
         mockMvc.perform(get("/api/v1/users"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value(1L));
+                .andExpect(jsonPath("$._embedded.userResourceList").isArray())
+                .andExpect(jsonPath("$._embedded.userResourceList[0].id").value(1L))
+                .andExpect(jsonPath("$._links.self.href").exists());
 
         verify(userServiceMock).getAllUsers();
     }
 
+    @Test
+    @DisplayName("Фильтр пользователей со ссылкой на следующую страницу")
+    void getAllUsers_WithFilter_ShouldReturnNextLink() throws Exception {
+        when(userServiceMock.findUsers(any(UserFilter.class)))
+                .thenReturn(new UserPage(List.of(testUserResource), "next-cursor"));
+
+        mockMvc.perform(get("/api/v1/users")
+                        .param("minAge", "18")
+                        .param("sort", "createdAt")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.userResourceList[0].id").value(1L))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("cursor=next-cursor")));
+
+        verify(userServiceMock).findUsers(argThat(filter -> filter.getMinAge() == 18 && "createdAt".equals(filter.getSort())));
+    }
+
     @Test
     @DisplayName("Поиск пользователя по email")
     void getUserByEmail_ShouldReturnUser() throws Exception {
-        when(userServiceMock.getUserByEmail(anyString())).thenReturn(testUserResponse);
+        when(userServiceMock.getUserByEmail(anyString())).thenReturn(testUserResource);
 
         mockMvc.perform(get("/api/v1/users/email/{email}", "test@example.com"))
                 .andExpect(status().isOk())
@@ -129,7 +323,7 @@ class UserControllerTest {
     @Test
     @DisplayName("Обновление пользователя")
     void updateUser_ShouldUpdateUser() throws Exception {
-        when(userServiceMock.updateUser(anyLong(), any(UserRequest.class))).thenReturn(testUserResponse);
+        when(userServiceMock.updateUser(anyLong(), any(UserRequest.class))).thenReturn(testUserResource);
 
         mockMvc.perform(put("/api/v1/users/{id}", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -168,4 +362,13 @@ class UserControllerTest {
 
         verify(userServiceMock, never()).createUser(any(UserRequest.class));
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private void streamUsers(CompactUser... users) {
+        doAnswer(invocation -> {
+            Consumer<CompactUser> consumer = invocation.getArgument(0);
+            Arrays.stream(users).forEach(consumer);
+            return null;
+        }).when(userServiceMock).forEachUserCompact(any(Consumer.class));
+    }
+}
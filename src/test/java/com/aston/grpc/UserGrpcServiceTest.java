@@ -0,0 +1,156 @@
+package com.aston.grpc;
+
+import com.aston.dto.UserFilter;
+import com.aston.dto.UserPage;
+import com.aston.dto.UserResource;
+import com.aston.exception.ServiceUnavailableException;
+import com.aston.exception.UserException;
+import com.aston.grpc.proto.BatchGetUsersRequest;
+import com.aston.grpc.proto.GetUserRequest;
+import com.aston.grpc.proto.ListUsersRequest;
+import com.aston.grpc.proto.User;
+import com.aston.grpc.proto.UserServiceGrpc;
+import com.aston.service.UserService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validation;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Тесты UserGrpcService")
+class UserGrpcServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 10, 0, 0);
+
+    private UserService userService;
+    private Server server;
+    private ManagedChannel channel;
+    private UserServiceGrpc.UserServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userService = mock(UserService.class);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new UserGrpcService(userService,
+                        Validation.buildDefaultValidatorFactory().getValidator(), 2))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = UserServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Получение пользователя по ID")
+    void getUser_ShouldReturnUser() {
+        when(userService.getUserById(1L)).thenReturn(user(1L));
+
+        User user = stub.getUser(GetUserRequest.newBuilder().setId(1L).build());
+
+        assertThat(user.getEmail()).isEqualTo("user1@example.com");
+        assertThat(user.getAge()).isEqualTo(30);
+        assertThat(user.getCreatedAt().getSeconds()).isEqualTo(CREATED_AT.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Отсутствующий пользователь - NOT_FOUND")
+    void getUser_NotFound_ShouldReturnNotFound() {
+        when(userService.getUserById(2L)).thenThrow(new UserException("Пользователь с ID 2 не найден"));
+
+        assertThatThrownBy(() -> stub.getUser(GetUserRequest.newBuilder().setId(2L).build()))
+                .isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Недоступность БД без снимка - UNAVAILABLE, а не NOT_FOUND")
+    void getUser_ServiceUnavailable_ShouldReturnUnavailable() {
+        when(userService.getUserById(2L)).thenThrow(new ServiceUnavailableException(
+                "Сервис временно недоступен. Пожалуйста, попробуйте позже.", new IllegalStateException("БД недоступна")));
+
+        assertThatThrownBy(() -> stub.getUser(GetUserRequest.newBuilder().setId(2L).build()))
+                .isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.UNAVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Пакетное получение пользователей")
+    void batchGetUsers_ShouldReturnFoundUsers() {
+        when(userService.getUsersByIds(List.of(2L, 1L, 3L))).thenReturn(List.of(user(2L), user(1L)));
+
+        List<User> users = stub.batchGetUsers(BatchGetUsersRequest.newBuilder()
+                .addIds(2L).addIds(1L).addIds(3L)
+                .build()).getUsersList();
+
+        assertThat(users).extracting(User::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Потоковый список проходит все страницы по курсору, беря лимит один раз")
+    void listUsers_ShouldStreamAllPages() {
+        when(userService.findUsers(argThat(filter -> filter != null && filter.getCursor() == null)))
+                .thenReturn(new UserPage(List.of(user(1L), user(2L)), "page-2"));
+        when(userService.findUsersPage(argThat(filter -> filter != null && "page-2".equals(filter.getCursor()))))
+                .thenReturn(new UserPage(List.of(user(3L)), null));
+
+        List<Long> ids = new ArrayList<>();
+        stub.listUsers(ListUsersRequest.newBuilder().setMinAge(18).build())
+                .forEachRemaining(user -> ids.add(user.getId()));
+
+        assertThat(ids).containsExactly(1L, 2L, 3L);
+        // лимит списка берется только первой страницей
+        verify(userService, times(1)).findUsers(argThat(filter -> filter != null
+                && filter.getMinAge() == 18 && filter.getLimit() == 2));
+        verify(userService, times(1)).findUsersPage(any());
+    }
+
+    @Test
+    @DisplayName("Некорректный фильтр списка - INVALID_ARGUMENT")
+    void listUsers_InvalidFilter_ShouldReturnInvalidArgument() {
+        assertThatThrownBy(() -> stub.listUsers(ListUsersRequest.newBuilder().setSort("name").build()).hasNext())
+                .isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.INVALID_ARGUMENT);
+        verify(userService, never()).findUsers(any(UserFilter.class));
+    }
+
+    private static UserResource user(Long id) {
+        return UserResource.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@example.com")
+                .age(30)
+                .createdAt(CREATED_AT)
+                .build();
+    }
+}
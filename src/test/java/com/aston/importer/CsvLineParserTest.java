@@ -0,0 +1,32 @@
+package com.aston.importer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тесты CsvLineParser")
+class CsvLineParserTest {
+
+    @Test
+    @DisplayName("Разбор значений в кавычках с запятыми и экранированными кавычками")
+    void parse_QuotedValues_ShouldUnescape() {
+        assertThat(CsvLineParser.parse("\"Иванов, Иван\",\"say \"\"hi\"\"\",30"))
+                .containsExactly("Иванов, Иван", "say \"hi\"", "30");
+    }
+
+    @Test
+    @DisplayName("Пустое значение без кавычек - null")
+    void parse_EmptyValue_ShouldReturnNull() {
+        assertThat(CsvLineParser.parse("Иван, ivan@example.com ,"))
+                .containsExactly("Иван", "ivan@example.com", null);
+    }
+
+    @Test
+    @DisplayName("Незакрытая кавычка")
+    void parse_UnclosedQuote_ShouldThrow() {
+        assertThatThrownBy(() -> CsvLineParser.parse("\"Иван,ivan@example.com"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
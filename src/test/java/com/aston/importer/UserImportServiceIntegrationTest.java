@@ -0,0 +1,142 @@
+package com.aston.importer;
+
+import com.aston.dto.UserImportReport;
+import com.aston.service.KafkaEventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Testcontainers
+@DisplayName("Интеграционные тесты UserImportService")
+class UserImportServiceIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static PGSimpleDataSource dataSource;
+
+    private KafkaEventService kafkaEventService;
+    private UserImportService importService;
+
+    @BeforeAll
+    static void createTable() throws SQLException {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgres.getJdbcUrl());
+        dataSource.setUser(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        execute("CREATE TABLE users ("
+                + "id BIGSERIAL PRIMARY KEY, "
+                + "name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(100) NOT NULL, "
+                + "age INTEGER, "
+                + "created_at TIMESTAMP, "
+                + "version BIGINT NOT NULL DEFAULT 0)");
+        execute("CREATE UNIQUE INDEX ux_users_email_lower ON users (lower(email))");
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        execute("DELETE FROM users");
+        kafkaEventService = mock(KafkaEventService.class);
+        importService = new UserImportService(dataSource,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), kafkaEventService, 2, 100);
+    }
+
+    @Test
+    @DisplayName("Импорт CSV с ошибками, повторами и существующими email")
+    void importUsers_Csv_ShouldReportRowErrors() throws SQLException {
+        execute("INSERT INTO users (name, email, age) VALUES ('Старый', 'existing@example.com', 40)");
+        String csv = "email,name,age\n"
+                + "ivan@example.com,Иван,30\n"
+                + "bad-email,Петр,20\n"
+                + "\"anna@example.com\",\"Анна, мл.\",\n"
+                + "IVAN@example.com,Иван 2,31\n"
+                + "Existing@Example.com,Новый,25\n"
+                + "oleg@example.com,Олег,abc\n";
+
+        UserImportReport report = importService.importUsers(stream(csv), ImportFormat.CSV);
+
+        assertThat(report.getTotalRows()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getInvalid()).isEqualTo(2);
+        assertThat(report.getDuplicates()).isEqualTo(1);
+        assertThat(report.getExisting()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(UserImportReport.RowError::getLine)
+                .containsExactlyInAnyOrder(3L, 7L, 5L, 6L);
+        assertThat(count()).isEqualTo(3);
+        verify(kafkaEventService, times(1)).sendUserCreatedEvents(argThat(users -> users.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Импорт JSONL")
+    void importUsers_Jsonl_ShouldImportValidRows() throws SQLException {
+        String jsonl = "{\"name\":\"Иван\",\"email\":\"ivan@example.com\",\"age\":30}\n"
+                + "{\"name\":\"Анна\",\"email\":\"anna@example.com\"}\n"
+                + "{not json}\n";
+
+        UserImportReport report = importService.importUsers(stream(jsonl), ImportFormat.JSONL);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getInvalid()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(UserImportReport.RowError::getLine).containsExactly(3L);
+        assertThat(count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Строка JSONL null отклоняется как ошибка строки")
+    void importUsers_JsonlNull_ShouldRejectLine() throws SQLException {
+        String jsonl = "null\n"
+                + "{\"name\":\"Иван\",\"email\":\"ivan@example.com\",\"age\":30}\n";
+
+        UserImportReport report = importService.importUsers(stream(jsonl), ImportFormat.JSONL);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getInvalid()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(UserImportReport.RowError::getMessage).containsExactly("Пустая запись");
+        assertThat(count()).isEqualTo(1);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long count() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM users")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
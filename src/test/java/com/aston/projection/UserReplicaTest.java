@@ -0,0 +1,122 @@
+package com.aston.projection;
+
+import com.aston.dto.UserEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты UserReplica")
+class UserReplicaTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 10, 0, 0);
+
+    @Test
+    @DisplayName("Создание и обновление пользователя в реплике")
+    void apply_CreatedAndUpdated_ShouldKeepLatestState() {
+        UserReplica replica = new UserReplica();
+
+        replica.apply(event(UserEvent.EventType.USER_CREATED, 1L, "old@example.com", 30, 0L));
+        replica.apply(event(UserEvent.EventType.USER_UPDATED, 1L, "new@example.com", 31, 1L));
+
+        assertThat(replica.size()).isEqualTo(1);
+        assertThat(replica.findByEmail("old@example.com")).isEmpty();
+        assertThat(replica.findByEmail("new@example.com")).isPresent();
+        ReplicaUser user = replica.findById(1L).orElseThrow();
+        assertThat(user.getAge()).isEqualTo(31);
+        assertThat(user.getCreatedAt()).isEqualTo(CREATED_AT);
+    }
+
+    @Test
+    @DisplayName("Поиск по email без учета регистра")
+    void findByEmail_DifferentCase_ShouldFindUser() {
+        UserReplica replica = new UserReplica();
+
+        replica.apply(event(UserEvent.EventType.USER_CREATED, 1L, "User@Example.com", 30, 0L));
+
+        assertThat(replica.findByEmail("user@example.COM")).isPresent();
+        assertThat(replica.findById(1L).orElseThrow().getEmail()).isEqualTo("User@Example.com");
+    }
+
+    @Test
+    @DisplayName("Удаление пользователя из реплики")
+    void apply_Deleted_ShouldRemoveUser() {
+        UserReplica replica = new UserReplica();
+
+        replica.apply(event(UserEvent.EventType.USER_CREATED, 1L, "user@example.com", 30, 0L));
+        replica.apply(event(UserEvent.EventType.USER_DELETED, 1L, "user@example.com", 30, 1L));
+
+        assertThat(replica.findById(1L)).isEmpty();
+        assertThat(replica.findByEmail("user@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Событие со старой версией не откатывает данные")
+    void apply_StaleVersion_ShouldBeIgnored() {
+        UserReplica replica = new UserReplica();
+
+        replica.apply(event(UserEvent.EventType.USER_UPDATED, 1L, "new@example.com", 31, 2L));
+        replica.apply(event(UserEvent.EventType.USER_CREATED, 1L, "old@example.com", 30, 0L));
+
+        assertThat(replica.findById(1L).orElseThrow().getEmail()).isEqualTo("new@example.com");
+        assertThat(replica.findByEmail("old@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Tombstone удаляет пользователя по ключу")
+    void applyTombstone_ShouldRemoveUser() {
+        UserReplica replica = new UserReplica();
+
+        replica.apply(event(UserEvent.EventType.USER_CREATED, 1L, "user@example.com", 30, 0L));
+        replica.applyTombstone("1");
+        replica.applyTombstone("not-a-number");
+
+        assertThat(replica.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Снимок реплики восстанавливает данные и смещения")
+    void snapshot_ShouldRoundTrip(@TempDir Path dir) throws Exception {
+        UserReplica replica = new UserReplica();
+        replica.apply(event(UserEvent.EventType.USER_CREATED, 1L, "user@example.com", 30, 3L));
+        replica.apply(UserEvent.builder()
+                .eventType(UserEvent.EventType.USER_CREATED)
+                .userId(2L)
+                .email("noage@example.com")
+                .build());
+        replica.markProcessed(0, 41L);
+        replica.markProcessed(0, 40L);
+
+        Path path = dir.resolve("replica.snapshot");
+        new UserReplicaSnapshotter(replica, path, Duration.ofMinutes(1)).save();
+
+        UserReplica restored = new UserReplica();
+        new UserReplicaSnapshotter(restored, path, Duration.ofMinutes(1)).load();
+
+        assertThat(restored.size()).isEqualTo(2);
+        assertThat(restored.offsets()).containsEntry(0, 41L);
+        ReplicaUser user = restored.findByEmail("user@example.com").orElseThrow();
+        assertThat(user.getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(user.getVersion()).isEqualTo(3L);
+        ReplicaUser noAge = restored.findById(2L).orElseThrow();
+        assertThat(noAge.getAge()).isNull();
+        assertThat(noAge.getName()).isNull();
+    }
+
+    private static UserEvent event(UserEvent.EventType type, Long id, String email, int age, Long version) {
+        return UserEvent.builder()
+                .eventType(type)
+                .userId(id)
+                .name("Пользователь " + id)
+                .email(email)
+                .age(age)
+                .createdAt(CREATED_AT)
+                .version(version)
+                .build();
+    }
+}
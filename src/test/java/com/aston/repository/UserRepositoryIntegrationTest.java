@@ -1,13 +1,20 @@
 package com.aston.repository;
 
+import com.aston.config.QueryMonitoringConfig;
+import com.aston.dto.CompactUser;
 import com.aston.entity.User;
+import com.aston.utils.QueryCountAssertions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -24,6 +31,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @DataJpaTest
 @Testcontainers
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryMonitoringConfig.class)
 @DisplayName("Интеграционные тесты UserRepository")
 class UserRepositoryIntegrationTest {
 
@@ -55,6 +63,11 @@ class UserRepositoryIntegrationTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        QueryCountAssertions.clear();
+    }
+
     @Test
     @DisplayName("Сохранение пользователя")
     void save_ShouldSaveUser() {
@@ -85,6 +98,17 @@ class UserRepositoryIntegrationTest {
         assertThat(foundUser.get().getName()).isEqualTo("Тестовый пользователь");
     }
 
+    @Test
+    @DisplayName("Поиск и проверка email без учета регистра")
+    void findByEmail_DifferentCase_ShouldReturnUser() {
+        User savedUser = userRepository.save(testUser);
+
+        assertThat(userRepository.findByEmail("TEST@Example.com")).isPresent();
+        assertThat(userRepository.existsByEmail("Test@EXAMPLE.com")).isTrue();
+        assertThat(userRepository.existsByEmailAndIdNot("TEST@EXAMPLE.COM", savedUser.getId())).isFalse();
+        assertThat(userRepository.existsByEmailAndIdNot("TEST@EXAMPLE.COM", savedUser.getId() + 1)).isTrue();
+    }
+
     @Test
     @DisplayName("Проверка уникальности email")
     void save_DuplicateEmail_ShouldThrowException() {
@@ -100,6 +124,21 @@ class UserRepositoryIntegrationTest {
                 .isInstanceOf(DataIntegrityViolationException.class);
     }
 
+    @Test
+    @DisplayName("Уникальность email без учета регистра")
+    void save_DuplicateEmailDifferentCase_ShouldThrowException() {
+        userRepository.save(testUser);
+
+        User duplicateUser = User.builder()
+                .name("Другой пользователь")
+                .email("Test@Example.com")
+                .age(30)
+                .build();
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(duplicateUser))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     @Test
     @DisplayName("Поиск по имени")
     void findByNameContainingIgnoreCase_ShouldReturnUsers() {
@@ -148,4 +187,85 @@ class UserRepositoryIntegrationTest {
 
         assertThat(userRepository.findById(userId)).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Проверка email выполняет один SQL-запрос")
+    void existsByEmail_ShouldExecuteSingleSelect() {
+        userRepository.save(testUser);
+
+        QueryCountAssertions.reset();
+        userRepository.existsByEmail("test@example.com");
+
+        QueryCountAssertions.assertSelectCount(1);
+        QueryCountAssertions.assertTotalCount(1);
+    }
+
+    @Test
+    @DisplayName("Keyset-выборка по возрасту продолжается после курсора")
+    void findPage_AgeKeyset_ShouldReturnRowsAfterCursor() {
+        userRepository.saveAll(List.of(
+                User.builder().name("Первый").email("a@test.com").age(20).build(),
+                User.builder().name("Второй").email("b@test.com").age(25).build(),
+                User.builder().name("Третий").email("c@test.com").age(25).build(),
+                User.builder().name("Четвертый").email("d@test.com").age(40).build()));
+        User second = userRepository.findByEmail("b@test.com").orElseThrow();
+
+        List<User> page = userRepository.findPage(
+                UserSpecifications.ageTo(30).and(UserSpecifications.after("age", 25, second.getId(), true)),
+                Sort.by("age").and(Sort.by("id")),
+                10);
+
+        assertThat(page).extracting(User::getEmail).containsExactly("c@test.com");
+    }
+
+    @Test
+    @DisplayName("Компактная страница читается одним запросом без сущностей")
+    void findCompactPage_ShouldSelectProjectionOnly() {
+        userRepository.saveAll(List.of(
+                User.builder().name("Первый").email("a@test.com").age(20).build(),
+                User.builder().name("Второй").email("b@test.com").age(25).build(),
+                User.builder().name("Третий").email("c@test.com").age(40).build()));
+
+        QueryCountAssertions.reset();
+        List<CompactUser> page = userRepository.findCompactPage(
+                UserSpecifications.ageTo(30), Sort.by(Sort.Direction.DESC, "age").and(Sort.by("id")), 10);
+
+        assertThat(page).extracting(CompactUser::getEmail).containsExactly("b@test.com", "a@test.com");
+        assertThat(page.get(0).getName()).isEqualTo("Второй");
+        QueryCountAssertions.assertSelectCount(1);
+    }
+
+    @Test
+    @DisplayName("Поиск по части имени возвращает самые похожие имена первыми")
+    void findByNameSimilar_ShouldOrderBySimilarity() {
+        userRepository.saveAll(List.of(
+                User.builder().name("John").email("a@test.com").age(20).build(),
+                User.builder().name("Johnathan Smith").email("b@test.com").age(25).build(),
+                User.builder().name("Peter").email("john@test.com").age(40).build()));
+
+        List<UserRepository.NameMatch> matches = userRepository.findByNameSimilar("john", "%john%", 10);
+
+        assertThat(matches).extracting(UserRepository.NameMatch::getEmail).containsExactly("a@test.com", "b@test.com");
+        assertThat(matches.get(0).getScore()).isEqualTo(1.0);
+        assertThat(matches.get(0).getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Поиск по началу email без учета регистра, короткие email первыми")
+    void findByEmailPrefix_ShouldMatchPrefixIgnoringCase() {
+        userRepository.saveAll(List.of(
+                User.builder().name("Первый").email("John.Smith@test.com").age(20).build(),
+                User.builder().name("Второй").email("john@test.com").age(25).build(),
+                User.builder().name("Третий").email("ann.john@test.com").age(40).build()));
+
+        List<CompactUser> users = userRepository.findByEmailPrefix("john%", PageRequest.of(0, 10));
+
+        assertThat(users).extracting(CompactUser::getEmail).containsExactly("john@test.com", "John.Smith@test.com");
+    }
+
+    @Test
+    @DisplayName("Таймаут запросов задается в миллисекундах до конца транзакции")
+    void setLocalStatementTimeout_ShouldApplyMilliseconds() {
+        assertThat(userRepository.setLocalStatementTimeout("250ms")).isEqualTo("250ms");
+    }
+}
@@ -0,0 +1,87 @@
+package com.aston.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тесты AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("Отказ при исчерпании лимита")
+    void tryAcquire_LimitExhausted_ShouldReject() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD, 0.9, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Снижение лимита при росте p99")
+    void release_HighLatency_ShouldDecreaseLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100, THRESHOLD, 0.9, 10);
+
+        completeWindow(limiter, 10, TimeUnit.MILLISECONDS.toNanos(400));
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getLastP99Nanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    @Test
+    @DisplayName("Лимит не опускается ниже минимума")
+    void release_SustainedHighLatency_ShouldRespectMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 100, THRESHOLD, 0.9, 10);
+
+        for (int i = 0; i < 5; i++) {
+            completeWindow(limiter, 1, TimeUnit.SECONDS.toNanos(1));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Рост лимита при низкой задержке и полной загрузке")
+    void release_LowLatencyAtFullLoad_ShouldIncreaseLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 2, 100, THRESHOLD, 0.9, 10);
+
+        completeWindow(limiter, 5, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limiter.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Лимит не растет, если он не используется полностью")
+    void release_LowLatencyUnderused_ShouldKeepLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 2, 100, THRESHOLD, 0.9, 10);
+
+        completeWindow(limiter, 1, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    /**
+     * Завершить окно из 10 вызовов, выполняя их пачками по concurrency штук
+     */
+    private void completeWindow(AdaptiveConcurrencyLimiter limiter, int concurrency, long latencyNanos) {
+        int completed = 0;
+        while (completed < 10) {
+            int batch = Math.min(concurrency, 10 - completed);
+            for (int i = 0; i < batch; i++) {
+                assertThat(limiter.tryAcquire()).isTrue();
+            }
+            for (int i = 0; i < batch; i++) {
+                limiter.release(latencyNanos);
+            }
+            completed += batch;
+        }
+    }
+}
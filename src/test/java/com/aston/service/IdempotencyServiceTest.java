@@ -0,0 +1,114 @@
+package com.aston.service;
+
+import com.aston.dto.UserRequest;
+import com.aston.dto.UserResource;
+import com.aston.exception.IdempotencyConflictException;
+import com.aston.exception.UserException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Юнит-тесты IdempotencyService")
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+    private UserRequest request;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(Duration.ofHours(1), Duration.ofSeconds(30), 100, Clock.systemUTC());
+        request = UserRequest.builder()
+                .name("Тестовый пользователь")
+                .email("test@example.com")
+                .age(25)
+                .build();
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Повтор с тем же ключом возвращает сохраненный ответ без повторного выполнения")
+    void execute_SameKey_ShouldReplayResponse() {
+        IdempotencyService.Result first = idempotencyService.execute("key-1", request, this::createUser);
+        IdempotencyService.Result second = idempotencyService.execute("key-1", request, this::createUser);
+
+        assertThat(first.isReplayed()).isFalse();
+        assertThat(second.isReplayed()).isTrue();
+        assertThat(second.getResource().getId()).isEqualTo(first.getResource().getId());
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Повтор ключа с другими данными - конфликт")
+    void execute_SameKeyDifferentBody_ShouldThrowConflict() {
+        idempotencyService.execute("key-1", request, this::createUser);
+
+        UserRequest other = UserRequest.builder()
+                .name("Другой пользователь")
+                .email("other@example.com")
+                .age(30)
+                .build();
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", other, this::createUser))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("После ошибки ключ можно использовать повторно")
+    void execute_FailedAttempt_ShouldReleaseKey() {
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request, () -> {
+            throw new UserException("Сервис временно недоступен");
+        })).isInstanceOf(UserException.class);
+
+        IdempotencyService.Result result = idempotencyService.execute("key-1", request, this::createUser);
+
+        assertThat(result.isReplayed()).isFalse();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Тело с тем же 32-битным хешем, но другими данными - конфликт")
+    void execute_HashCollision_ShouldThrowConflict() {
+        idempotencyService.execute("key-1", request, this::createUser);
+
+        // hash("...col") = hash("...com") - 1, разница компенсируется возрастом: 31 * (-1) + 31 = 0
+        UserRequest colliding = UserRequest.builder()
+                .name("Тестовый пользователь")
+                .email("test@example.col")
+                .age(56)
+                .build();
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", colliding, this::createUser))
+                .isInstanceOf(IdempotencyConflictException.class);
+    }
+
+    @Test
+    @DisplayName("Число ключей не превышает max-entries: вытесняются самые старые")
+    void execute_OverMaxEntries_ShouldEvictOldest() {
+        IdempotencyService bounded = new IdempotencyService(Duration.ofHours(1), Duration.ofSeconds(30), 3, Clock.systemUTC());
+        for (int i = 1; i <= 5; i++) {
+            bounded.execute("key-" + i, request, this::createUser);
+        }
+
+        assertThat(bounded.size()).isEqualTo(3);
+        assertThat(bounded.execute("key-5", request, this::createUser).isReplayed()).isTrue();
+        assertThat(bounded.execute("key-1", request, this::createUser).isReplayed()).isFalse();
+    }
+
+    private UserResource createUser() {
+        return UserResource.builder()
+                .id((long) calls.incrementAndGet())
+                .name(request.getName())
+                .email(request.getEmail())
+                .age(request.getAge())
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.aston.service;
+
+import com.aston.dto.UserEvent;
+import com.aston.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Юнит-тесты KafkaEventService")
+class KafkaEventServiceTest {
+
+    private static final String TOPIC = "user-events";
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private KafkaEventService kafkaEventService;
+
+    @BeforeEach
+    void setUp() {
+        kafkaEventService = new KafkaEventService(kafkaTemplate);
+        ReflectionTestUtils.setField(kafkaEventService, "userEventsTopic", TOPIC);
+        ReflectionTestUtils.setField(kafkaEventService, "eventSource", "service");
+    }
+
+    @Test
+    @DisplayName("Пачка удалений отправляется без ожидания каждой записи и сбрасывается один раз")
+    void sendUserDeletedEvents_ShouldFlushOncePerBatch() {
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenAnswer(invocation -> completed());
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), isNull())).thenAnswer(invocation -> completed());
+
+        kafkaEventService.sendUserDeletedEvents(List.of(user(1L), user(2L), user(3L)));
+
+        InOrder order = inOrder(kafkaTemplate);
+        order.verify(kafkaTemplate, times(3)).send(eq(TOPIC), anyString(), any(UserEvent.class));
+        order.verify(kafkaTemplate).flush();
+        verify(kafkaTemplate, times(3)).send(eq(TOPIC), anyString(), isNull());
+        verify(kafkaTemplate, times(1)).flush();
+    }
+
+    private static SettableListenableFuture<SendResult<String, Object>> completed() {
+        SettableListenableFuture<SendResult<String, Object>> future = new SettableListenableFuture<>();
+        future.set(null);
+        return future;
+    }
+
+    private static User user(Long id) {
+        return User.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@example.com")
+                .age(30)
+                .version(0L)
+                .build();
+    }
+}
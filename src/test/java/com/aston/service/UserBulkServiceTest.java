@@ -0,0 +1,111 @@
+package com.aston.service;
+
+import com.aston.cache.UserCache;
+import com.aston.cache.UserSnapshotStore;
+import com.aston.dto.BulkOperationResult;
+import com.aston.dto.BulkUserRequest;
+import com.aston.entity.User;
+import com.aston.exception.UserException;
+import com.aston.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Юнит-тесты UserBulkService")
+class UserBulkServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private KafkaEventService kafkaEventService;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new UserBulkService(userRepository, kafkaEventService, new UserSnapshotStore(100),
+                userCache, transactionManager, 2);
+    }
+
+    @Test
+    @DisplayName("Удаление по списку ID частями")
+    void deleteUsers_ByIds_ShouldDeleteInChunks() {
+        when(userRepository.findAllByIdForUpdate(List.of(1L, 2L))).thenReturn(List.of(user(1L), user(2L)));
+        when(userRepository.findAllByIdForUpdate(List.of(3L))).thenReturn(List.of(user(3L)));
+
+        BulkOperationResult result = bulkService.deleteUsers(BulkUserRequest.builder()
+                .ids(List.of(1L, 2L, 2L, 3L))
+                .build());
+
+        assertThat(result.getAffected()).isEqualTo(3);
+        verify(userRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(userRepository).deleteByIdIn(List.of(3L));
+        verify(kafkaEventService).sendUserDeletedEvents(List.of(user(3L)));
+        verify(userCache).evict(1L);
+        verify(userCache).evict(3L);
+    }
+
+    @Test
+    @DisplayName("Изменение возраста по диапазону с постраничной выборкой ID")
+    void updateAge_ByAgeRange_ShouldPageById() {
+        when(userRepository.findIdsByAgeBetween(eq(18), eq(150), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsByAgeBetween(eq(18), eq(150), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(5L));
+        when(userRepository.updateAgeByIdIn(anyList(), eq(30))).thenReturn(2, 1);
+        when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(user(1L), user(2L)));
+        when(userRepository.findAllById(List.of(5L))).thenReturn(List.of(user(5L)));
+
+        BulkOperationResult result = bulkService.updateAge(BulkUserRequest.builder()
+                .minAge(18)
+                .age(30)
+                .build());
+
+        assertThat(result.getAffected()).isEqualTo(3);
+        verify(kafkaEventService).sendUserUpdatedEvents(List.of(user(5L)));
+    }
+
+    @Test
+    @DisplayName("Ошибка без выбора пользователей")
+    void deleteUsers_WithoutSelection_ShouldThrow() {
+        assertThatThrownBy(() -> bulkService.deleteUsers(new BulkUserRequest()))
+                .isInstanceOf(UserException.class);
+
+        verify(userRepository, never()).findIdsByAgeBetween(anyInt(), anyInt(), any(Long.class), any());
+    }
+
+    private static User user(Long id) {
+        return User.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@example.com")
+                .age(20)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.aston.service;
+
+import com.aston.dto.CompactUser;
+import com.aston.dto.UserSearchResult;
+import com.aston.exception.ServiceOverloadedException;
+import com.aston.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Юнит-тесты UserSearchService")
+class UserSearchServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 10, 0, 0);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private UserSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        UserSearchProperties properties = new UserSearchProperties();
+        properties.setTimeout(Duration.ofMillis(200));
+        properties.setLimit(10);
+        searchService = new UserSearchService(userRepository, properties, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        searchService.destroy();
+    }
+
+    @Test
+    @DisplayName("Результаты по email и имени объединяются без повторов и сортируются по релевантности")
+    void search_ShouldMergeAndRankResults() {
+        when(userRepository.findByEmailPrefix(eq("john%"), any())).thenReturn(List.of(
+                user(1L, "Bob", "johnny.b@example.com"),
+                user(2L, "John Smith", "john.smith@example.com"),
+                user(3L, "Ann", "john")));
+        when(userRepository.findByNameSimilar("john", "%john%", 10)).thenReturn(List.of(
+                nameMatch(user(2L, "John Smith", "john.smith@example.com"), 0.5),
+                nameMatch(user(4L, "Johnson", "j@example.com"), 0.4)));
+
+        UserSearchResult result = searchService.search(" john ");
+
+        assertThat(result.isPartial()).isFalse();
+        assertThat(result.getUnavailable()).isEmpty();
+        assertThat(result.getItems()).extracting(CompactUser::getId).containsExactly(3L, 2L, 1L, 4L);
+    }
+
+    @Test
+    @DisplayName("Таймаут запросов к БД не превышает бюджет поиска")
+    void search_ShouldLimitStatementTimeoutByBudget() {
+        when(userRepository.findByEmailPrefix(anyString(), any())).thenReturn(List.of());
+        when(userRepository.findByNameSimilar(anyString(), anyString(), anyInt())).thenReturn(List.of());
+
+        searchService.search("john");
+
+        verify(userRepository, times(2)).setLocalStatementTimeout(argThat(timeout -> timeout.endsWith("ms")
+                && Long.parseLong(timeout.substring(0, timeout.length() - 2)) <= 200));
+    }
+
+    @Test
+    @DisplayName("Медленный поиск по имени не попадает в ответ, результат частичный")
+    void search_ShouldReturnPartialResult_WhenNameLegIsSlow() {
+        when(userRepository.findByEmailPrefix(eq("john%"), any()))
+                .thenReturn(List.of(user(1L, "Bob", "johnny.b@example.com")));
+        when(userRepository.findByNameSimilar(anyString(), anyString(), anyInt())).thenAnswer(blockUntilReleased());
+
+        long started = System.nanoTime();
+        UserSearchResult result = searchService.search("john");
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getUnavailable()).containsExactly(UserSearchService.NAME);
+        assertThat(result.getItems()).extracting(CompactUser::getId).containsExactly(1L);
+        assertThat(elapsedMillis).isLessThan(1000);
+    }
+
+    @Test
+    @DisplayName("Ошибка поиска по email не мешает вернуть результаты по имени")
+    void search_ShouldReturnPartialResult_WhenEmailLegFails() {
+        when(userRepository.findByEmailPrefix(anyString(), any())).thenThrow(new IllegalStateException("БД недоступна"));
+        when(userRepository.findByNameSimilar(anyString(), anyString(), anyInt()))
+                .thenReturn(List.of(nameMatch(user(4L, "Johnson", "j@example.com"), 0.4)));
+
+        UserSearchResult result = searchService.search("john");
+
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getUnavailable()).containsExactly(UserSearchService.EMAIL);
+        assertThat(result.getItems()).extracting(CompactUser::getId).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Если ни один поиск не уложился в бюджет, сервис сообщает о перегрузке")
+    void search_ShouldThrowOverloaded_WhenAllLegsAreSlow() {
+        when(userRepository.findByEmailPrefix(anyString(), any())).thenAnswer(blockUntilReleased());
+        when(userRepository.findByNameSimilar(anyString(), anyString(), anyInt())).thenAnswer(blockUntilReleased());
+
+        assertThatThrownBy(() -> searchService.search("john"))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    @DisplayName("Спецсимволы LIKE в строке поиска экранируются")
+    void escapeLike_ShouldEscapeWildcards() {
+        assertThat(UserSearchService.escapeLike("50%_a\\b")).isEqualTo("50\\%\\_a\\\\b");
+    }
+
+    private <T> Answer<T> blockUntilReleased() {
+        return invocation -> {
+            release.await();
+            return null;
+        };
+    }
+
+    private static CompactUser user(Long id, String name, String email) {
+        return new CompactUser(id, name, email, 30, CREATED_AT);
+    }
+
+    private static UserRepository.NameMatch nameMatch(CompactUser user, double score) {
+        return new UserRepository.NameMatch() {
+            @Override
+            public Long getId() {
+                return user.getId();
+            }
+
+            @Override
+            public String getName() {
+                return user.getName();
+            }
+
+            @Override
+            public String getEmail() {
+                return user.getEmail();
+            }
+
+            @Override
+            public Integer getAge() {
+                return user.getAge();
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return user.getCreatedAt();
+            }
+
+            @Override
+            public double getScore() {
+                return score;
+            }
+        };
+    }
+}
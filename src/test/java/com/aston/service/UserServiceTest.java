@@ -1,9 +1,21 @@
 package com.aston.service;
 
+import com.aston.cache.NearUserCache;
+import com.aston.cache.SharedUserCache;
+import com.aston.cache.TwoLevelUserCache;
+import com.aston.cache.UserCache;
+import com.aston.cache.UserSnapshotStore;
+import com.aston.dto.CompactUser;
+import com.aston.dto.CompactUserPage;
+import com.aston.dto.UserFilter;
+import com.aston.dto.UserPage;
 import com.aston.dto.UserRequest;
-import com.aston.dto.UserResponse;
+import com.aston.dto.UserResource;
 import com.aston.entity.User;
+import com.aston.exception.ServiceUnavailableException;
 import com.aston.exception.UserException;
+import com.aston.logging.LogSampler;
+import com.aston.logging.LogSamplingProperties;
 import com.aston.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,17 +23,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,7 +61,8 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, kafkaEventService);
+        userService = new UserService(userRepository, kafkaEventService,
+                new LogSampler(new LogSamplingProperties()), new UserSnapshotStore(100), UserCache.NONE);
 
         testUser = User.builder()
                 .id(1L)
@@ -64,7 +85,7 @@ class UserServiceTest {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
-        UserResponse response = userService.createUser(testUserRequest);
+        UserResource response = userService.createUser(testUserRequest);
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(1L);
@@ -74,18 +95,58 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("Событие удаления и очистка кэша выполняются только после коммита")
+    void deleteUser_InTransaction_ShouldInvalidateAfterCommit() {
+        UserCache cache = mock(UserCache.class);
+        userService = new UserService(userRepository, kafkaEventService,
+                new LogSampler(new LogSamplingProperties()), new UserSnapshotStore(100), cache);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser(1L);
+
+            verify(userRepository).deleteById(1L);
+            verifyNoInteractions(kafkaEventService, cache);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(cache).evict(1L);
+        verify(kafkaEventService).sendUserDeletedEvent(testUser);
+    }
+
     @Test
     @DisplayName("Получение пользователя по ID")
     void getUserById_ExistingId_ShouldReturnUser() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
 
-        UserResponse response = userService.getUserById(1L);
+        UserResource response = userService.getUserById(1L);
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(1L);
         verify(userRepository).findById(1L);
     }
 
+    @Test
+    @DisplayName("Повторное получение пользователя по ID берется из кэша")
+    void getUserById_Cached_ShouldNotQueryRepository() {
+        TwoLevelUserCache cache = new TwoLevelUserCache(
+                new NearUserCache(100, Duration.ofSeconds(30), Clock.systemUTC()), mock(SharedUserCache.class));
+        userService = new UserService(userRepository, kafkaEventService,
+                new LogSampler(new LogSamplingProperties()), new UserSnapshotStore(100), cache);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+
+        userService.getUserById(1L);
+        UserResource response = userService.getUserById(1L);
+
+        assertThat(response.getEmail()).isEqualTo("test@example.com");
+        verify(userRepository, times(1)).findById(1L);
+    }
+
     @Test
     @DisplayName("Получение всех пользователей")
     void getAllUsers_ShouldReturnAllUsers() {
@@ -98,12 +159,167 @@ class UserServiceTest {
 
         when(userRepository.findAll()).thenReturn(Arrays.asList(testUser, user2));
 
-        List<UserResponse> responses = userService.getAllUsers();
+        List<UserResource> responses = userService.getAllUsers();
 
         assertThat(responses).hasSize(2);
-        assertThat(responses).extracting(UserResponse::getEmail)
+        assertThat(responses).extracting(UserResource::getEmail)
                 .containsExactlyInAnyOrder("test@example.com", "other@example.com");
 
         verify(userRepository).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Fallback получения по ID отдает последний известный снимок")
+    void getUserByIdFallback_WithSnapshot_ShouldReturnStaleUser() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+        userService.getUserById(1L);
+
+        UserResource response = userService.getUserByIdFallback(1L, new RuntimeException("БД недоступна"));
+
+        assertThat(response.getId()).isEqualTo(1L);
+        assertThat(response.getStaleAgeSeconds()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Fallback получения по ID без снимка - исключение")
+    void getUserByIdFallback_WithoutSnapshot_ShouldThrowException() {
+        assertThatThrownBy(() -> userService.getUserByIdFallback(1L, new RuntimeException("БД недоступна")))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("временно недоступен");
+    }
+
+    @Test
+    @DisplayName("Страница фильтра возвращает курсор следующей страницы")
+    void findUsers_MoreThanLimit_ShouldReturnNextCursor() {
+        User user2 = User.builder()
+                .id(2L)
+                .name("Другой пользователь")
+                .email("other@example.com")
+                .age(30)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(userRepository.findPage(any(), any(), eq(2))).thenReturn(List.of(testUser, user2));
+
+        UserPage page = userService.findUsers(UserFilter.builder()
+                .minAge(18)
+                .sort("age")
+                .limit(1)
+                .build());
+
+        assertThat(page.getItems()).extracting(UserResource::getId).containsExactly(1L);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        when(userRepository.findPage(any(), any(), eq(2))).thenReturn(List.of(user2));
+        UserPage next = userService.findUsers(UserFilter.builder()
+                .minAge(18)
+                .sort("age")
+                .limit(1)
+                .cursor(page.getNextCursor())
+                .build());
+
+        assertThat(next.getItems()).extracting(UserResource::getId).containsExactly(2L);
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Компактная страница строится из проекции без загрузки сущностей")
+    void findUsersCompact_MoreThanLimit_ShouldReturnNextCursor() {
+        CompactUser first = new CompactUser(1L, "Тестовый пользователь", "test@example.com", 25, LocalDateTime.now());
+        CompactUser second = new CompactUser(2L, "Другой пользователь", "other@example.com", 30, LocalDateTime.now());
+        when(userRepository.findCompactPage(any(), any(), eq(2))).thenReturn(List.of(first, second));
+
+        CompactUserPage page = userService.findUsersCompact(UserFilter.builder()
+                .sort("createdAt")
+                .limit(1)
+                .build());
+
+        assertThat(page.getItems()).extracting(CompactUser::getId).containsExactly(1L);
+        assertThat(page.getNextCursor()).isEqualTo(UserCursor.of("createdAt", true, first).encode());
+        verify(userRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Курсор другой сортировки - исключение")
+    void findUsers_CursorForOtherSort_ShouldThrowException() {
+        String cursor = UserCursor.of("age", true, testUser).encode();
+
+        assertThatThrownBy(() -> userService.findUsers(UserFilter.builder()
+                .sort("createdAt")
+                .cursor(cursor)
+                .build()))
+                .isInstanceOf(UserException.class);
+    }
+
+    @Test
+    @DisplayName("Курсор с другим направлением сортировки - исключение")
+    void findUsers_CursorForOtherDirection_ShouldThrowException() {
+        String cursor = UserCursor.of("age", true, testUser).encode();
+
+        assertThatThrownBy(() -> userService.findUsers(UserFilter.builder()
+                .sort("age")
+                .direction("desc")
+                .cursor(cursor)
+                .build()))
+                .isInstanceOf(UserException.class);
+    }
+
+    @Test
+    @DisplayName("Пользователи без значения поля сортировки идут после остальных")
+    void findUsers_NullSortValues_ShouldFollowOtherUsers() {
+        User withoutAge = User.builder()
+                .id(2L)
+                .name("Без возраста")
+                .email("noage@example.com")
+                .createdAt(LocalDateTime.now())
+                .build();
+        User alsoWithoutAge = User.builder()
+                .id(3L)
+                .name("Тоже без возраста")
+                .email("noage2@example.com")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(userRepository.findPage(any(), any(), eq(3))).thenReturn(List.of(testUser));
+        when(userRepository.findPage(any(), any(), eq(2))).thenReturn(List.of(withoutAge, alsoWithoutAge));
+
+        UserPage page = userService.findUsers(UserFilter.builder()
+                .sort("age")
+                .limit(2)
+                .build());
+
+        assertThat(page.getItems()).extracting(UserResource::getId).containsExactly(1L, 2L);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        when(userRepository.findPage(any(), any(), eq(3))).thenReturn(List.of(alsoWithoutAge));
+        UserPage next = userService.findUsers(UserFilter.builder()
+                .sort("age")
+                .limit(2)
+                .cursor(page.getNextCursor())
+                .build());
+
+        assertThat(next.getItems()).extracting(UserResource::getId).containsExactly(3L);
+        assertThat(next.getNextCursor()).isNull();
+        // продолжение после записи без возраста читает только такие записи, одним запросом
+        verify(userRepository, times(3)).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Пакетное получение сохраняет порядок ID и пропускает отсутствующих")
+    void getUsersByIds_ShouldKeepRequestOrder() {
+        User user2 = User.builder().id(2L).name("Второй").email("second@example.com").age(30).build();
+        when(userRepository.findAllById(any())).thenReturn(List.of(testUser, user2));
+
+        List<UserResource> users = userService.getUsersByIds(List.of(2L, 3L, 1L, 2L));
+
+        assertThat(users).extracting(UserResource::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Пакетное получение больше 100 ID отклоняется")
+    void getUsersByIds_TooMany_ShouldThrowException() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
+
+        assertThatThrownBy(() -> userService.getUsersByIds(ids))
+                .isInstanceOf(UserException.class);
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,115 @@
+package com.aston.service;
+
+import com.aston.dto.UserStats;
+import com.aston.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Юнит-тесты UserStatsService")
+class UserStatsServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T10:00:00Z");
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MutableClock clock;
+    private UserStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        statsService = new UserStatsService(userRepository, Duration.ofSeconds(10), 3, clock);
+        when(userRepository.countByAgeBucket()).thenReturn(List.of(group("18-24", 5), group("unknown", 2)));
+        when(userRepository.countByCreationDay(any(LocalDateTime.class))).thenReturn(List.of(group("2026-01-09", 4)));
+    }
+
+    @Test
+    @DisplayName("Статистика с нулями для пустых групп и дней")
+    void getStats_ShouldFillEmptyBuckets() {
+        UserStats stats = statsService.getStats();
+
+        assertThat(stats.getTotal()).isEqualTo(7);
+        assertThat(stats.getByAgeBucket()).containsEntry("18-24", 5L).containsEntry("65+", 0L).hasSize(8);
+        assertThat(stats.getByCreationDay()).containsExactly(
+                entry("2026-01-08", 0L),
+                entry("2026-01-09", 4L),
+                entry("2026-01-10", 0L));
+        verify(userRepository).countByCreationDay(LocalDateTime.of(2026, 1, 8, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Повторный запрос в пределах TTL не обращается к БД")
+    void getStats_WithinTtl_ShouldUseCache() {
+        statsService.getStats();
+        clock.advance(Duration.ofSeconds(5));
+        statsService.getStats();
+        verify(userRepository, times(1)).countByAgeBucket();
+
+        clock.advance(Duration.ofSeconds(6));
+        statsService.getStats();
+        verify(userRepository, times(2)).countByAgeBucket();
+    }
+
+    private static UserRepository.GroupCount group(String bucket, long count) {
+        return new UserRepository.GroupCount() {
+            @Override
+            public String getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.aston.utils;
+
+import com.aston.monitoring.QueryCountHolder;
+import com.aston.monitoring.QueryStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверки числа SQL-запросов в тестах
+ *
+ * Требует, чтобы DataSource был обернут прокси из QueryMonitoringConfig.
+ * Использование: reset() перед проверяемым вызовом, затем assert*Count
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void reset() {
+        QueryCountHolder.start();
+    }
+
+    public static void clear() {
+        QueryCountHolder.stop();
+    }
+
+    public static QueryStats stats() {
+        QueryStats stats = QueryCountHolder.current();
+        assertThat(stats)
+                .as("Подсчет запросов не запущен, вызовите QueryCountAssertions.reset()")
+                .isNotNull();
+        return stats;
+    }
+
+    public static void assertSelectCount(int expected) {
+        assertThat(stats().getSelect()).as("Число SELECT-запросов").isEqualTo(expected);
+    }
+
+    public static void assertInsertCount(int expected) {
+        assertThat(stats().getInsert()).as("Число INSERT-запросов").isEqualTo(expected);
+    }
+
+    public static void assertUpdateCount(int expected) {
+        assertThat(stats().getUpdate()).as("Число UPDATE-запросов").isEqualTo(expected);
+    }
+
+    public static void assertDeleteCount(int expected) {
+        assertThat(stats().getDelete()).as("Число DELETE-запросов").isEqualTo(expected);
+    }
+
+    public static void assertTotalCount(int expected) {
+        assertThat(stats().getTotal()).as("Общее число SQL-запросов").isEqualTo(expected);
+    }
+}